@@ -0,0 +1,263 @@
+package com.shyam;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Computer opponent whose mixed strategy is learned by regret matching.
+ *
+ * The strategy is trained in the background by self-play: in each simulated round the opponent
+ * plays either a move drawn from the recorded human move distribution or the move of a second
+ * regret-matching learner. Simulation batches run in parallel on a worker pool and the averaged
+ * strategy is published as an immutable array, so live games pick up the new policy on their
+ * next move without waiting. Choosing a move reads that array and allocates nothing.
+ */
+class AdaptiveOpponent {
+    private static final Choice[] CHOICES = Choice.values();
+    private static final int MOVES = CHOICES.length;
+    private static final int[][] PAYOFF = new int[MOVES][MOVES];
+    private static final int BATCHES = 8;
+    private static final int ITERATIONS_PER_BATCH = 20000;
+    private static final double HUMAN_WEIGHT = 0.75;
+    private static final double REGRET_DECAY = 0.5;
+
+    static {
+        for (Choice a : CHOICES) {
+            for (Choice b : CHOICES) {
+                String result = Choice.determineWinner(a, b);
+                PAYOFF[a.ordinal()][b.ordinal()] = result.equals("Win!") ? 1 : result.equals("Lose!") ? -1 : 0;
+            }
+        }
+    }
+
+    private final Thread coordinator;
+    private final ExecutorService workers;
+    private final AtomicLongArray humanCounts = new AtomicLongArray(MOVES);
+    private final AtomicBoolean trainingRequested = new AtomicBoolean();
+    private final double[] regrets = new double[MOVES];
+    private final double[] adversaryRegrets = new double[MOVES];
+
+    // Cumulative probabilities of ROCK, PAPER, SCISSORS; replaced, never mutated
+    private volatile double[] policy = {1.0 / 3, 2.0 / 3, 1.0};
+
+    /**
+     * Creates an opponent whose training runs on daemon threads: one coordinator and a batch pool sized to the machine.
+     */
+    public AdaptiveOpponent() {
+        int threads = Math.max(1, Math.min(BATCHES, Runtime.getRuntime().availableProcessors() - 1));
+        workers = Executors.newFixedThreadPool(threads, r -> trainerThread(r, "adaptive-opponent-worker"));
+        coordinator = trainerThread(this::coordinate, "adaptive-opponent-coordinator");
+        coordinator.start();
+    }
+
+    private static Thread trainerThread(Runnable r, String name) {
+        Thread t = new Thread(r, name);
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    }
+
+    /**
+     * Stops training; the current policy stays in use.
+     */
+    public void close() {
+        coordinator.interrupt();
+        workers.shutdownNow();
+    }
+
+    /**
+     * Chooses the computer's move from the current policy.
+     */
+    public Choice nextChoice() {
+        double[] cumulative = policy;
+        double r = ThreadLocalRandom.current().nextDouble();
+        if (r < cumulative[0]) {
+            return CHOICES[0];
+        }
+        return r < cumulative[1] ? CHOICES[1] : CHOICES[2];
+    }
+
+    /**
+     * Records a human move and schedules a training run if none is pending.
+     */
+    public void observe(Choice playerChoice) {
+        humanCounts.incrementAndGet(playerChoice.ordinal());
+        scheduleTraining();
+    }
+
+    /**
+     * Seeds the human move distribution from the player's past Adaptive rounds in the background,
+     * skipping timed-out rounds whose moves were chosen at random.
+     */
+    public void seedFrom(final RoundLog roundLog, final String playerName) {
+        workers.execute(() -> {
+            roundLog.scan(playerName, Long.MIN_VALUE, Long.MAX_VALUE,
+                (timestamp, playerChoice, computerChoice, result, difficulty, timedOut) -> {
+                    if (difficulty == Difficulty.ADAPTIVE && !timedOut) {
+                        humanCounts.incrementAndGet(playerChoice.ordinal());
+                    }
+                });
+            scheduleTraining();
+        });
+    }
+
+    /**
+     * Gets the probability of each move under the current policy.
+     */
+    public double[] getPolicy() {
+        double[] cumulative = policy;
+        return new double[] {cumulative[0], cumulative[1] - cumulative[0], cumulative[2] - cumulative[1]};
+    }
+
+    /**
+     * Wakes the coordinator if it is idle. Requests made while training is running collapse into one more run.
+     */
+    private void scheduleTraining() {
+        if (trainingRequested.compareAndSet(false, true)) {
+            LockSupport.unpark(coordinator);
+        }
+    }
+
+    /**
+     * Coordinator loop: parks until training is requested, then runs one training pass.
+     */
+    private void coordinate() {
+        while (!Thread.currentThread().isInterrupted()) {
+            if (trainingRequested.getAndSet(false)) {
+                train();
+            } else {
+                LockSupport.park(this);
+            }
+        }
+    }
+
+    /**
+     * Runs one training pass: parallel simulation batches from the current regrets, then merges and publishes.
+     */
+    private void train() {
+        final double[] humanCumulative = humanDistribution();
+        final double[] startRegrets;
+        final double[] startAdversaryRegrets;
+        synchronized (regrets) {
+            startRegrets = regrets.clone();
+            startAdversaryRegrets = adversaryRegrets.clone();
+        }
+
+        List<Callable<double[][]>> batches = new ArrayList<>(BATCHES);
+        for (int b = 0; b < BATCHES; b++) {
+            batches.add(() -> simulate(startRegrets, startAdversaryRegrets, humanCumulative));
+        }
+
+        double[] regretDelta = new double[MOVES];
+        double[] adversaryDelta = new double[MOVES];
+        double[] strategySum = new double[MOVES];
+        try {
+            for (Future<double[][]> future : workers.invokeAll(batches)) {
+                double[][] batch = future.get();
+                for (int i = 0; i < MOVES; i++) {
+                    regretDelta[i] += batch[0][i];
+                    adversaryDelta[i] += batch[1][i];
+                    strategySum[i] += batch[2][i];
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            System.err.println("Error training adaptive opponent: " + e.getMessage());
+            return;
+        }
+
+        synchronized (regrets) {
+            for (int i = 0; i < MOVES; i++) {
+                regrets[i] = Math.max(0, regrets[i] * REGRET_DECAY + regretDelta[i] / BATCHES);
+                adversaryRegrets[i] = Math.max(0, adversaryRegrets[i] * REGRET_DECAY + adversaryDelta[i] / BATCHES);
+            }
+        }
+
+        double total = strategySum[0] + strategySum[1] + strategySum[2];
+        policy = new double[] {strategySum[0] / total, (strategySum[0] + strategySum[1]) / total, 1.0};
+    }
+
+    /**
+     * Simulates one batch of regret-matching rounds.
+     * @return Regret deltas of the opponent, regret deltas of the adversary, and the opponent's strategy sum.
+     */
+    private static double[][] simulate(double[] startRegrets, double[] startAdversaryRegrets, double[] humanCumulative) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double[] own = startRegrets.clone();
+        double[] adversary = startAdversaryRegrets.clone();
+        double[] strategy = new double[MOVES];
+        double[] adversaryStrategy = new double[MOVES];
+        double[] strategySum = new double[MOVES];
+
+        for (int it = 0; it < ITERATIONS_PER_BATCH; it++) {
+            regretMatching(own, strategy);
+            regretMatching(adversary, adversaryStrategy);
+            for (int i = 0; i < MOVES; i++) {
+                strategySum[i] += strategy[i];
+            }
+
+            int move = sample(strategy, random.nextDouble());
+            int opponentMove;
+            if (random.nextDouble() < HUMAN_WEIGHT) {
+                double r = random.nextDouble();
+                opponentMove = r < humanCumulative[0] ? 0 : r < humanCumulative[1] ? 1 : 2;
+            } else {
+                opponentMove = sample(adversaryStrategy, random.nextDouble());
+            }
+
+            for (int a = 0; a < MOVES; a++) {
+                own[a] = Math.max(0, own[a] + PAYOFF[a][opponentMove] - PAYOFF[move][opponentMove]);
+                adversary[a] = Math.max(0, adversary[a] + PAYOFF[a][move] - PAYOFF[opponentMove][move]);
+            }
+        }
+
+        double[] ownDelta = new double[MOVES];
+        double[] adversaryDelta = new double[MOVES];
+        for (int i = 0; i < MOVES; i++) {
+            ownDelta[i] = own[i] - startRegrets[i];
+            adversaryDelta[i] = adversary[i] - startAdversaryRegrets[i];
+        }
+        return new double[][] {ownDelta, adversaryDelta, strategySum};
+    }
+
+    /**
+     * Sets the strategy proportional to positive regrets, or uniform if there are none.
+     */
+    private static void regretMatching(double[] regret, double[] strategy) {
+        double sum = 0;
+        for (int i = 0; i < MOVES; i++) {
+            sum += regret[i];
+        }
+        for (int i = 0; i < MOVES; i++) {
+            strategy[i] = sum > 0 ? regret[i] / sum : 1.0 / MOVES;
+        }
+    }
+
+    private static int sample(double[] strategy, double r) {
+        double cumulative = 0;
+        for (int i = 0; i < MOVES - 1; i++) {
+            cumulative += strategy[i];
+            if (r < cumulative) {
+                return i;
+            }
+        }
+        return MOVES - 1;
+    }
+
+    /**
+     * Gets the cumulative human move distribution with add-one smoothing.
+     */
+    private double[] humanDistribution() {
+        double rock = humanCounts.get(0) + 1;
+        double paper = humanCounts.get(1) + 1;
+        double scissors = humanCounts.get(2) + 1;
+        double total = rock + paper + scissors;
+        return new double[] {rock / total, (rock + paper) / total, 1.0};
+    }
+}
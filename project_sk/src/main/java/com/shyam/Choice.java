@@ -0,0 +1,28 @@
+package com.shyam;
+
+/**
+ * Represents the choices in the Rock, Paper, Scissors game.
+ */
+enum Choice {
+    ROCK,
+    PAPER,
+    SCISSORS;
+
+    /**
+     * Determines the winner between two choices.
+     * @param playerChoice The player's choice.
+     * @param computerChoice The computer's choice.
+     * @return A string indicating the result: "Draw!", "Win!", or "Lose!".
+     */
+    public static String determineWinner(Choice playerChoice, Choice computerChoice) {
+        if (playerChoice == computerChoice) {
+            return "Draw!";
+        } else if ((playerChoice == ROCK && computerChoice == SCISSORS) ||
+                   (playerChoice == PAPER && computerChoice == ROCK) ||
+                   (playerChoice == SCISSORS && computerChoice == PAPER)) {
+            return "Win!";
+        } else {
+            return "Lose!";
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.shyam;
+
+/**
+ * Represents the difficulty levels for the game.
+ */
+enum Difficulty {
+    EASY, MEDIUM, HARD, ADAPTIVE
+}
@@ -2,13 +2,150 @@ package com.shyam;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Manages game statistics and leaderboard data, including file I/O operations.
+ * Public methods are synchronized since stats are updated off the Event Dispatch Thread.
  */
 public class GameStats {
     private static final String LEADERBOARD_FILE = "leaderboard.txt";
+    private static final String WINDOWS_FILE = "leaderboard_windows.txt";
+    private static final int DEFAULT_CAPACITY = 10;
+    private static final long HOUR_MILLIS = 60L * 60 * 1000;
+    private static final long DAY_MILLIS = 24 * HOUR_MILLIS;
+    private static final long SAVE_DELAY_MILLIS = 1000;
+    
+    // Sort by wins (descending) then by win rate, then by name so that every player has a unique position
+    static final Comparator<PlayerStats> RANKING = (a, b) -> {
+        if (b.getWins() != a.getWins()) {
+            return Integer.compare(b.getWins(), a.getWins());
+        } else if (b.getWinRate() != a.getWinRate()) {
+            return Double.compare(b.getWinRate(), a.getWinRate());
+        } else {
+            return a.getName().compareTo(b.getName());
+        }
+    };
+    
+    private final String leaderboardFile;
+    private final String windowsFile;
+    private final int capacity;
     private List<PlayerStats> leaderboard;
+    private final PlayerNameIndex names = new PlayerNameIndex();
+    private final Map<String, RollingStats> windowedStats = new HashMap<>();
+    private volatile long version = 0;
+    // Background writer for saveSoon(), created on first use
+    private ScheduledExecutorService saver;
+    private boolean saveScheduled;
+    // Serializes file writes; savedVersion is the version last written and is guarded by it
+    private final Object saveLock = new Object();
+    private long savedVersion = -1;
+    
+    /**
+     * Time windows for leaderboard queries. DAY covers the last 24 hours and WEEK the last 7 days, including today.
+     */
+    public enum Window {
+        DAY, WEEK, ALL_TIME
+    }
+    
+    /**
+     * Game results of one player in rolling time buckets: 24 hourly and 7 daily buckets, each holding
+     * games, wins, losses and draws. A bucket is reused when its slot comes round again, so stale
+     * buckets expire as new games are recorded and memory per player stays fixed.
+     */
+    private static class RollingStats {
+        private static final int HOURS = 24;
+        private static final int DAYS = 7;
+        
+        private final long[] hourEpochs = new long[HOURS];
+        private final int[] hourCounts = new int[HOURS * 4];
+        private final long[] dayEpochs = new long[DAYS];
+        private final int[] dayCounts = new int[DAYS * 4];
+        private long lastTimestamp;
+        
+        RollingStats() {
+            Arrays.fill(hourEpochs, -1);
+            Arrays.fill(dayEpochs, -1);
+        }
+        
+        void record(long timestamp, int games, int wins, int losses, int draws) {
+            add(hourEpochs, hourCounts, timestamp / HOUR_MILLIS, games, wins, losses, draws);
+            add(dayEpochs, dayCounts, timestamp / DAY_MILLIS, games, wins, losses, draws);
+            lastTimestamp = Math.max(lastTimestamp, timestamp);
+        }
+        
+        private static void add(long[] epochs, int[] counts, long epoch, int games, int wins, int losses, int draws) {
+            int slot = (int) (epoch % epochs.length);
+            if (epochs[slot] != epoch) {
+                if (epochs[slot] > epoch) {
+                    return; // Older than the window, already expired
+                }
+                epochs[slot] = epoch;
+                Arrays.fill(counts, slot * 4, slot * 4 + 4, 0);
+            }
+            counts[slot * 4] += games;
+            counts[slot * 4 + 1] += wins;
+            counts[slot * 4 + 2] += losses;
+            counts[slot * 4 + 3] += draws;
+        }
+        
+        /**
+         * Sums the buckets inside the window ending now into games, wins, losses and draws.
+         */
+        void sum(Window window, long now, int[] totals) {
+            Arrays.fill(totals, 0);
+            long[] epochs = window == Window.DAY ? hourEpochs : dayEpochs;
+            int[] counts = window == Window.DAY ? hourCounts : dayCounts;
+            long current = now / (window == Window.DAY ? HOUR_MILLIS : DAY_MILLIS);
+            for (int slot = 0; slot < epochs.length; slot++) {
+                if (epochs[slot] > current - epochs.length && epochs[slot] <= current) {
+                    for (int i = 0; i < 4; i++) {
+                        totals[i] += counts[slot * 4 + i];
+                    }
+                }
+            }
+        }
+        
+        boolean isExpired(long now) {
+            return now - lastTimestamp >= RollingStats.DAYS * DAY_MILLIS;
+        }
+        
+        /**
+         * Writes the live buckets as "epoch:games:wins:losses:draws" entries separated by commas.
+         */
+        private static String format(long[] epochs, int[] counts) {
+            StringBuilder sb = new StringBuilder();
+            for (int slot = 0; slot < epochs.length; slot++) {
+                if (epochs[slot] >= 0) {
+                    if (sb.length() > 0) {
+                        sb.append(',');
+                    }
+                    sb.append(epochs[slot]).append(':').append(counts[slot * 4]).append(':')
+                        .append(counts[slot * 4 + 1]).append(':').append(counts[slot * 4 + 2]).append(':')
+                        .append(counts[slot * 4 + 3]);
+                }
+            }
+            return sb.toString();
+        }
+        
+        private static void parse(String field, long[] epochs, int[] counts) {
+            if (field.isEmpty()) {
+                return;
+            }
+            for (String bucket : field.split(",")) {
+                String[] parts = bucket.split(":");
+                add(epochs, counts, Long.parseLong(parts[0]), Integer.parseInt(parts[1]),
+                    Integer.parseInt(parts[2]), Integer.parseInt(parts[3]), Integer.parseInt(parts[4]));
+            }
+        }
+        
+        @Override
+        public String toString() {
+            return lastTimestamp + "|" + format(hourEpochs, hourCounts) + "|" + format(dayEpochs, dayCounts);
+        }
+    }
     
     /**
      * Represents the statistics for a single player.
@@ -61,80 +198,213 @@ public class GameStats {
             return timestamp;
         }
         
+        /**
+         * Gets a copy that later updates to this player do not change.
+         */
+        public PlayerStats copy() {
+            PlayerStats copy = new PlayerStats(name, totalGames, wins, losses, draws);
+            copy.timestamp = timestamp;
+            return copy;
+        }
+        
         @Override
         public String toString() {
             return String.format("%s|%d|%d|%d|%d|%d", name, totalGames, wins, losses, draws, timestamp);
         }
+        
+        /**
+         * Parses a line in the format written by {@link #toString()}.
+         * @return The stats, or null if the line has too few fields.
+         * @throws NumberFormatException If a numeric field is malformed.
+         */
+        public static PlayerStats parse(String line) {
+            String[] parts = line.split("\\|");
+            if (parts.length < 6) {
+                return null;
+            }
+            PlayerStats stats = new PlayerStats(parts[0], Integer.parseInt(parts[1]), Integer.parseInt(parts[2]),
+                Integer.parseInt(parts[3]), Integer.parseInt(parts[4]));
+            stats.timestamp = Long.parseLong(parts[5]);
+            return stats;
+        }
+    }
+    
+    /**
+     * A player's stats together with their position on the leaderboard.
+     */
+    public static class RankedPlayer {
+        private final PlayerStats stats;
+        private final int rank;
+        
+        RankedPlayer(PlayerStats stats, int rank) {
+            this.stats = stats;
+            this.rank = rank;
+        }
+        
+        public PlayerStats getStats() {
+            return stats;
+        }
+        
+        /**
+         * Gets the position on the leaderboard, starting at 1.
+         */
+        public int getRank() {
+            return rank;
+        }
     }
     
     /**
      * Constructor for GameStats - loads existing leaderboard from file.
      */
     public GameStats() {
+        this(LEADERBOARD_FILE, WINDOWS_FILE, DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * Creates stats stored in the given files, keeping at most {@code capacity} players on the leaderboard.
+     */
+    public GameStats(String leaderboardFile, String windowsFile, int capacity) {
+        this.leaderboardFile = leaderboardFile;
+        this.windowsFile = windowsFile;
+        this.capacity = capacity;
         leaderboard = new ArrayList<>();
         loadLeaderboard();
+        loadWindowedStats();
+    }
+    
+    /**
+     * Loads the rolling time buckets from the windows file.
+     */
+    private void loadWindowedStats() {
+        try (BufferedReader reader = new BufferedReader(new FileReader(windowsFile))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\\|", -1);
+                if (parts.length >= 4) {
+                    RollingStats stats = new RollingStats();
+                    stats.lastTimestamp = Long.parseLong(parts[1]);
+                    RollingStats.parse(parts[2], stats.hourEpochs, stats.hourCounts);
+                    RollingStats.parse(parts[3], stats.dayEpochs, stats.dayCounts);
+                    windowedStats.put(names.canonical(parts[0]), stats);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // If file doesn't exist or is corrupted, start without windowed stats
+            windowedStats.clear();
+        }
+    }
+    
+    /**
+     * Saves the rolling time buckets to the windows file, dropping players with no games in the last week.
+     */
+    private void saveWindowedStats() {
+        long now = System.currentTimeMillis();
+        windowedStats.values().removeIf(stats -> stats.isExpired(now));
+        try (PrintWriter writer = new PrintWriter(new FileWriter(windowsFile))) {
+            for (Map.Entry<String, RollingStats> entry : windowedStats.entrySet()) {
+                writer.println(entry.getKey() + "|" + entry.getValue());
+            }
+        } catch (IOException e) {
+            System.err.println("Error saving windowed stats: " + e.getMessage());
+        }
     }
     
     /**
-     * Loads the leaderboard from the file.
+     * Loads the leaderboard from the file and sorts it, since the file may have been edited or written unsorted.
      */
     private void loadLeaderboard() {
-        try (BufferedReader reader = new BufferedReader(new FileReader(LEADERBOARD_FILE))) {
+        try (BufferedReader reader = new BufferedReader(new FileReader(leaderboardFile))) {
             String line;
             while ((line = reader.readLine()) != null) {
-                String[] parts = line.split("\\|");
-                if (parts.length >= 6) {
-                    String name = parts[0];
-                    int totalGames = Integer.parseInt(parts[1]);
-                    int wins = Integer.parseInt(parts[2]);
-                    int losses = Integer.parseInt(parts[3]);
-                    int draws = Integer.parseInt(parts[4]);
-                    long timestamp = Long.parseLong(parts[5]);
-                    
-                    PlayerStats stats = new PlayerStats(name, totalGames, wins, losses, draws);
-                    stats.timestamp = timestamp;
+                PlayerStats stats = PlayerStats.parse(line);
+                if (stats != null && names.get(stats.getName()) == null) {
                     leaderboard.add(stats);
+                    names.add(stats);
                 }
             }
         } catch (IOException | NumberFormatException e) {
             // If file doesn't exist or is corrupted, start with an empty leaderboard
             leaderboard = new ArrayList<>();
+            names.clear();
         }
+        leaderboard.sort(RANKING);
+        trimToCapacity();
     }
     
     /**
      * Saves the current leaderboard to the file.
      */
-    public void saveLeaderboard() {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(LEADERBOARD_FILE))) {
-            for (PlayerStats stats : leaderboard) {
-                writer.println(stats.toString());
+    public synchronized void saveLeaderboard() {
+        writeLeaderboard(leaderboard, version);
+    }
+    
+    /**
+     * Saves the leaderboard on a background thread a moment later, so a burst of updates costs one write.
+     * The file is written from a snapshot, without holding the stats lock.
+     */
+    private void saveSoon() {
+        if (saveScheduled) {
+            return;
+        }
+        saveScheduled = true;
+        if (saver == null) {
+            saver = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "leaderboard-save");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        saver.schedule(() -> {
+            List<PlayerStats> snapshot;
+            long snapshotVersion;
+            synchronized (this) {
+                saveScheduled = false;
+                snapshotVersion = version;
+                snapshot = new ArrayList<>(leaderboard.size());
+                for (PlayerStats stats : leaderboard) {
+                    snapshot.add(stats.copy());
+                }
             }
-        } catch (IOException e) {
-            System.err.println("Error saving leaderboard: " + e.getMessage());
+            writeLeaderboard(snapshot, snapshotVersion);
+        }, SAVE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Writes the given rows unless a newer version has already been written.
+     */
+    private void writeLeaderboard(List<PlayerStats> rows, long rowsVersion) {
+        synchronized (saveLock) {
+            if (rowsVersion <= savedVersion) {
+                return;
+            }
+            try (PrintWriter writer = new PrintWriter(new FileWriter(leaderboardFile))) {
+                for (PlayerStats stats : rows) {
+                    writer.println(stats.toString());
+                }
+            } catch (IOException e) {
+                System.err.println("Error saving leaderboard: " + e.getMessage());
+                return;
+            }
+            savedVersion = rowsVersion;
         }
     }
     
     /**
      * Adds a new player's stats to the leaderboard and saves to file.
      */
-    public void addPlayerStats(String name, int totalGames, int wins, int losses, int draws) {
+    public synchronized void addPlayerStats(String name, int totalGames, int wins, int losses, int draws) {
         PlayerStats newStats = new PlayerStats(name, totalGames, wins, losses, draws);
+        PlayerStats previous = names.get(name);
+        if (previous != null) {
+            leaderboard.remove(previous);
+        }
         leaderboard.add(newStats);
+        names.add(newStats);
+        version++;
         
         // Sort leaderboard by wins (descending) then by win rate
-        leaderboard.sort((a, b) -> {
-            if (b.getWins() != a.getWins()) {
-                return Integer.compare(b.getWins(), a.getWins());
-            } else {
-                return Double.compare(b.getWinRate(), a.getWinRate());
-            }
-        });
-        
-        // Keep only top 10 if there are more
-        if (leaderboard.size() > 10) {
-            leaderboard = leaderboard.subList(0, 10);
-        }
+        leaderboard.sort(RANKING);
+        trimToCapacity();
         
         saveLeaderboard();
     }
@@ -142,7 +412,7 @@ public class GameStats {
     /**
      * Gets the top N players from the leaderboard.
      */
-    public List<PlayerStats> getTopPlayers(int n) {
+    public synchronized List<PlayerStats> getTopPlayers(int n) {
         List<PlayerStats> top = new ArrayList<>();
         int count = Math.min(n, leaderboard.size());
         for (int i = 0; i < count; i++) {
@@ -151,24 +421,234 @@ public class GameStats {
         return top;
     }
     
+    /**
+     * Gets the top N players within a time window, computed from the pre-aggregated buckets.
+     * The returned stats hold the totals for that window only.
+     */
+    public synchronized List<PlayerStats> getTopPlayers(int n, Window window) {
+        if (window == Window.ALL_TIME) {
+            return getTopPlayers(n);
+        }
+        long now = System.currentTimeMillis();
+        int[] totals = new int[4];
+        
+        // Keep the best n in a heap whose head is the weakest of them
+        PriorityQueue<PlayerStats> best = new PriorityQueue<>(Math.max(1, n), RANKING.reversed());
+        for (Map.Entry<String, RollingStats> entry : windowedStats.entrySet()) {
+            entry.getValue().sum(window, now, totals);
+            if (totals[0] == 0) {
+                continue;
+            }
+            PlayerStats stats = new PlayerStats(entry.getKey(), totals[0], totals[1], totals[2], totals[3]);
+            stats.timestamp = entry.getValue().lastTimestamp;
+            if (best.size() < n) {
+                best.add(stats);
+            } else if (n > 0 && RANKING.compare(stats, best.peek()) < 0) {
+                best.poll();
+                best.add(stats);
+            }
+        }
+        
+        List<PlayerStats> top = new ArrayList<>(best);
+        top.sort(RANKING);
+        return top;
+    }
+    
+    /**
+     * Records the result of one finished game ("Win!", "Lose!" or "Draw!") in the player's rolling time buckets.
+     */
+    public synchronized void recordGame(String name, String result, long timestamp) {
+        RollingStats stats = windowedStats.get(name);
+        if (stats == null) {
+            stats = new RollingStats();
+            windowedStats.put(names.canonical(name), stats);
+        }
+        stats.record(timestamp, 1, result.equals("Win!") ? 1 : 0, result.equals("Lose!") ? 1 : 0,
+            result.equals("Draw!") ? 1 : 0);
+        version++;
+        saveWindowedStats();
+    }
+    
     /**
      * Gets the entire leaderboard.
      */
-    public List<PlayerStats> getLeaderboard() {
+    public synchronized List<PlayerStats> getLeaderboard() {
         return new ArrayList<>(leaderboard);
     }
     
     /**
-     * Updates a player's stats if they already exist in the leaderboard, otherwise adds them.
+     * Gets one page of the leaderboard, starting at page 0.
+     */
+    public synchronized List<PlayerStats> getPage(int page, int pageSize) {
+        List<PlayerStats> rows = new ArrayList<>();
+        long start = (long) Math.max(0, page) * pageSize;
+        long end = Math.min(leaderboard.size(), start + pageSize);
+        for (int i = (int) Math.min(start, end); i < end; i++) {
+            rows.add(leaderboard.get(i));
+        }
+        return rows;
+    }
+    
+    /**
+     * Gets the number of players on the leaderboard.
+     */
+    public synchronized int size() {
+        return leaderboard.size();
+    }
+    
+    /**
+     * Gets a player's stats, or null if the player is not on the leaderboard.
+     */
+    public synchronized PlayerStats getPlayerStats(String name) {
+        return names.get(name);
+    }
+    
+    /**
+     * Gets a player's position on the leaderboard, starting at 1, or 0 if the player is not on it.
+     */
+    public synchronized int getRank(String name) {
+        PlayerStats stats = names.get(name);
+        return stats == null ? 0 : rankOf(stats);
+    }
+    
+    /**
+     * Finds an indexed player's position by binary search. Ties are broken by name, so this is the same
+     * rule {@link ShardedStats#getRank} applies across shards: one plus the number of players ranked above.
+     */
+    private int rankOf(PlayerStats stats) {
+        return countAbove(stats) + 1;
+    }
+    
+    /**
+     * Gets every player whose name equals the given one ignoring case, with their ranks.
+     */
+    public synchronized List<RankedPlayer> findPlayersIgnoreCase(String name) {
+        return ranked(names.findIgnoreCase(name));
+    }
+    
+    /**
+     * Gets one page, starting at page 0, of the players whose name starts with the given prefix
+     * ignoring case, in name order and with their ranks.
+     */
+    public synchronized List<RankedPlayer> searchPlayers(String prefix, int page, int pageSize) {
+        return ranked(names.findByPrefix(prefix, page, pageSize));
+    }
+    
+    /**
+     * Counts the players whose name starts with the given prefix, ignoring case.
+     */
+    public synchronized int countPlayersWithPrefix(String prefix) {
+        return names.countByPrefix(prefix);
+    }
+    
+    /**
+     * Gets up to the given number of players whose name starts with the given prefix ignoring case,
+     * in name order and without ranks.
+     */
+    public synchronized List<PlayerStats> getPlayersWithPrefix(String prefix, int limit) {
+        return names.findByPrefix(prefix, 0, limit);
+    }
+    
+    private List<RankedPlayer> ranked(List<PlayerStats> players) {
+        List<RankedPlayer> rows = new ArrayList<>(players.size());
+        for (PlayerStats stats : players) {
+            rows.add(new RankedPlayer(stats, rankOf(stats)));
+        }
+        return rows;
+    }
+    
+    /**
+     * Counts the players ranked strictly above the given stats, using binary search on the sorted leaderboard.
+     */
+    public synchronized int countAbove(PlayerStats stats) {
+        int low = 0;
+        int high = leaderboard.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (RANKING.compare(leaderboard.get(mid), stats) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    /**
+     * Updates or adds many players at once, sorting and saving the leaderboard only once.
+     */
+    public synchronized void updateAllPlayerStats(List<PlayerStats> updates) {
+        for (PlayerStats update : updates) {
+            PlayerStats existingStats = names.get(update.getName());
+            if (existingStats != null) {
+                existingStats.totalGames = update.totalGames;
+                existingStats.wins = update.wins;
+                existingStats.losses = update.losses;
+                existingStats.draws = update.draws;
+                existingStats.timestamp = update.timestamp;
+            } else {
+                leaderboard.add(update);
+                names.add(update);
+            }
+        }
+        leaderboard.sort(RANKING);
+        trimToCapacity();
+        version++;
+        saveLeaderboard();
+    }
+    
+    /**
+     * Updates or adds one player, moving only that entry to its new position instead of re-sorting.
+     * The file is saved in the background shortly after, so a stream of updates does not rewrite it each time.
+     */
+    public synchronized void updatePlayerStats(PlayerStats update) {
+        PlayerStats stats = names.get(update.getName());
+        if (stats != null) {
+            int position = countAbove(stats);
+            if (position < leaderboard.size() && leaderboard.get(position) == stats) {
+                leaderboard.remove(position);
+            } else {
+                leaderboard.remove(stats);
+            }
+            stats.totalGames = update.totalGames;
+            stats.wins = update.wins;
+            stats.losses = update.losses;
+            stats.draws = update.draws;
+            stats.timestamp = update.timestamp;
+        } else {
+            stats = update;
+            names.add(stats);
+        }
+        leaderboard.add(countAbove(stats), stats);
+        trimToCapacity();
+        version++;
+        saveSoon();
+    }
+    
+    /**
+     * Drops the lowest-ranked players beyond the capacity, from the leaderboard and the name index.
      */
-    public void updatePlayerStats(String name, int totalGames, int wins, int losses, int draws) {
-        PlayerStats existingStats = null;
-        for (PlayerStats stats : leaderboard) {
-            if (stats.getName().equals(name)) {
-                existingStats = stats;
-                break;
+    private void trimToCapacity() {
+        if (leaderboard.size() > capacity) {
+            for (PlayerStats dropped : leaderboard.subList(capacity, leaderboard.size())) {
+                names.remove(dropped);
             }
+            leaderboard = new ArrayList<>(leaderboard.subList(0, capacity));
         }
+    }
+    
+    /**
+     * Gets a number that changes whenever the leaderboard changes, so callers can cache what they derive from it.
+     */
+    public long getVersion() {
+        return version;
+    }
+    
+    /**
+     * Updates a player's stats if they already exist in the leaderboard, otherwise adds them.
+     */
+    public synchronized void updatePlayerStats(String name, int totalGames, int wins, int losses, int draws) {
+        PlayerStats existingStats = names.get(name);
         
         if (existingStats != null) {
             // Update existing stats
@@ -177,19 +657,14 @@ public class GameStats {
             existingStats.losses = losses;
             existingStats.draws = draws;
             existingStats.timestamp = System.currentTimeMillis();
+            version++;
         } else {
             // Add new stats
             addPlayerStats(name, totalGames, wins, losses, draws);
         }
         
         // Re-sort the leaderboard
-        leaderboard.sort((a, b) -> {
-            if (b.getWins() != a.getWins()) {
-                return Integer.compare(b.getWins(), a.getWins());
-            } else {
-                return Double.compare(b.getWinRate(), a.getWinRate());
-            }
-        });
+        leaderboard.sort(RANKING);
         
         saveLeaderboard();
     }
@@ -0,0 +1,371 @@
+package com.shyam;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+
+/**
+ * Small embedded HTTP server exposing the leaderboard as JSON.
+ *
+ * Endpoints:
+ * <ul>
+ *   <li>{@code GET /api/leaderboard/top?k=10&window=week} - the top K players, all-time or for the last day or week</li>
+ *   <li>{@code GET /api/leaderboard/player?name=NAME} - one player's stats and rank</li>
+ *   <li>{@code GET /api/leaderboard/players?page=0&size=20} - paginated rankings</li>
+ *   <li>{@code GET /api/leaderboard/search?prefix=sh&page=0&size=20} - players whose name starts with a prefix,
+ *       ignoring case, in name order with their ranks</li>
+ * </ul>
+ * Serialized responses are cached per request until {@link GameStats#getVersion()} changes (windowed
+ * responses at most until the next hour, when their oldest bucket expires), and every
+ * response carries an ETag so that polling clients get a body-less 304 while nothing has changed.
+ */
+class LeaderboardServer {
+    private static final int DEFAULT_PORT = 8080;
+    private static final int DEFAULT_TOP = 10;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_ROWS = 100;
+    private static final int MAX_CACHE_ENTRIES = 1024;
+    private static final long HOUR_MILLIS = 60L * 60 * 1000;
+
+    private final GameStats gameStats;
+    private final HttpServer server;
+    private final Map<String, CachedResponse> cache = new ConcurrentHashMap<>();
+
+    /**
+     * A serialized response and the leaderboard version it was built from.
+     */
+    private static class CachedResponse {
+        private final long version;
+        private final long validUntil;
+        private final int status;
+        private final byte[] body;
+        private final String etag;
+
+        CachedResponse(long version, long validUntil, int status, byte[] body) {
+            this.version = version;
+            this.validUntil = validUntil;
+            this.status = status;
+            this.body = body;
+            this.etag = "\"" + version + "-" + Integer.toHexString(Arrays.hashCode(body)) + "\"";
+        }
+    }
+
+    /**
+     * Creates a server for the given stats on the given port. Call {@link #start()} to begin serving.
+     */
+    public LeaderboardServer(GameStats gameStats, int port) throws IOException {
+        this.gameStats = gameStats;
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/api/leaderboard/", this::handle);
+        server.setExecutor(Executors.newFixedThreadPool(2, r -> {
+            Thread t = new Thread(r, "leaderboard-http");
+            t.setDaemon(true);
+            return t;
+        }));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+
+    /**
+     * Gets the port the server is bound to, useful when it was created with port 0.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            if (!method.equals("GET") && !method.equals("HEAD")) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            String path = exchange.getRequestURI().getPath();
+            String query = exchange.getRequestURI().getRawQuery();
+            String key = query == null ? path : path + "?" + query;
+
+            CachedResponse response = cache.get(key);
+            if (response == null || response.version != gameStats.getVersion()
+                    || response.validUntil <= System.currentTimeMillis()) {
+                response = render(path, parseQuery(query));
+                if (cache.size() >= MAX_CACHE_ENTRIES) {
+                    cache.clear();
+                }
+                cache.put(key, response);
+            }
+
+            Headers headers = exchange.getResponseHeaders();
+            headers.set("ETag", response.etag);
+            headers.set("Cache-Control", "no-cache");
+            if (response.status == 200 && matchesAny(response.etag, exchange.getRequestHeaders().get("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+            headers.set("Content-Type", "application/json; charset=utf-8");
+            if (method.equals("HEAD")) {
+                exchange.sendResponseHeaders(response.status, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(response.status, response.body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response.body);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Error serving " + exchange.getRequestURI() + ": " + e);
+            // Only answer if nothing has been sent yet; otherwise closing the exchange ends the response
+            if (exchange.getResponseCode() == -1) {
+                byte[] body = "{\"error\":\"Internal server error\"}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+                exchange.sendResponseHeaders(500, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Serializes the response for a request, reading the stats and their version under the stats lock.
+     */
+    private CachedResponse render(String path, Map<String, String> params) {
+        synchronized (gameStats) {
+            long version = gameStats.getVersion();
+            long validUntil = Long.MAX_VALUE;
+            StringBuilder json = new StringBuilder();
+            int status = 200;
+            switch (path) {
+                case "/api/leaderboard/top": {
+                    int k = intParam(params, "k", DEFAULT_TOP);
+                    GameStats.Window window = windowParam(params);
+                    if (window == null) {
+                        status = 400;
+                        json.append("{\"error\":\"Unknown window\"}");
+                        break;
+                    }
+                    if (window != GameStats.Window.ALL_TIME) {
+                        validUntil = (System.currentTimeMillis() / HOUR_MILLIS + 1) * HOUR_MILLIS;
+                    }
+                    json.append("{\"window\":\"").append(window.name().toLowerCase(Locale.ROOT))
+                        .append("\",\"players\":");
+                    appendPlayers(json, gameStats.getTopPlayers(k, window), 1);
+                    json.append('}');
+                    break;
+                }
+                case "/api/leaderboard/players": {
+                    int page = intParam(params, "page", 0);
+                    int size = intParam(params, "size", DEFAULT_PAGE_SIZE);
+                    if (!isPageInRange(page, size)) {
+                        status = 400;
+                        json.append("{\"error\":\"Page out of range\"}");
+                        break;
+                    }
+                    json.append("{\"page\":").append(page)
+                        .append(",\"size\":").append(size)
+                        .append(",\"total\":").append(gameStats.size())
+                        .append(",\"players\":");
+                    appendPlayers(json, gameStats.getPage(page, size), page * size + 1);
+                    json.append('}');
+                    break;
+                }
+                case "/api/leaderboard/search": {
+                    String prefix = params.getOrDefault("prefix", "");
+                    int page = intParam(params, "page", 0);
+                    int size = intParam(params, "size", DEFAULT_PAGE_SIZE);
+                    if (!isPageInRange(page, size)) {
+                        status = 400;
+                        json.append("{\"error\":\"Page out of range\"}");
+                        break;
+                    }
+                    json.append("{\"prefix\":");
+                    appendString(json, prefix);
+                    json.append(",\"page\":").append(page)
+                        .append(",\"size\":").append(size)
+                        .append(",\"total\":").append(gameStats.countPlayersWithPrefix(prefix))
+                        .append(",\"players\":[");
+                    List<GameStats.RankedPlayer> found = gameStats.searchPlayers(prefix, page, size);
+                    for (int i = 0; i < found.size(); i++) {
+                        if (i > 0) {
+                            json.append(',');
+                        }
+                        appendPlayer(json, found.get(i).getStats(), found.get(i).getRank());
+                    }
+                    json.append("]}");
+                    break;
+                }
+                case "/api/leaderboard/player": {
+                    String name = params.get("name");
+                    GameStats.PlayerStats player = name == null ? null : gameStats.getPlayerStats(name);
+                    if (player == null) {
+                        status = 404;
+                        json.append("{\"error\":\"Player not found\"}");
+                    } else {
+                        appendPlayer(json, player, gameStats.getRank(name));
+                    }
+                    break;
+                }
+                default:
+                    status = 404;
+                    json.append("{\"error\":\"Not found\"}");
+                    break;
+            }
+            return new CachedResponse(version, validUntil, status, json.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void appendPlayers(StringBuilder json, List<GameStats.PlayerStats> players, int firstRank) {
+        json.append('[');
+        for (int i = 0; i < players.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            appendPlayer(json, players.get(i), firstRank + i);
+        }
+        json.append(']');
+    }
+
+    private static void appendPlayer(StringBuilder json, GameStats.PlayerStats player, int rank) {
+        json.append("{\"rank\":").append(rank)
+            .append(",\"name\":");
+        appendString(json, player.getName());
+        json.append(",\"totalGames\":").append(player.getTotalGames())
+            .append(",\"wins\":").append(player.getWins())
+            .append(",\"losses\":").append(player.getLosses())
+            .append(",\"draws\":").append(player.getDraws())
+            .append(",\"winRate\":").append(String.format(Locale.ROOT, "%.2f", player.getWinRate()))
+            .append(",\"timestamp\":").append(player.getTimestamp())
+            .append('}');
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': json.append("\\\""); break;
+                case '\\': json.append("\\\\"); break;
+                case '\n': json.append("\\n"); break;
+                case '\r': json.append("\\r"); break;
+                case '\t': json.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+
+    /**
+     * Gets an integer parameter clamped to 1..MAX_ROWS, or to 0.. for the page number.
+     */
+    private static int intParam(Map<String, String> params, String name, int defaultValue) {
+        String value = params.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value);
+            return name.equals("page") ? Math.max(0, parsed) : Math.max(1, Math.min(MAX_ROWS, parsed));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Checks that the rank of every row on the page fits in an int; pages past the last player are empty.
+     */
+    private static boolean isPageInRange(int page, int size) {
+        return (long) page * size + size <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * Checks the entity tags of If-None-Match headers against the response's tag: {@code *} matches any
+     * response, lists are comma-separated and weak tags ({@code W/"..."}) compare by their value.
+     */
+    private static boolean matchesAny(String etag, List<String> headers) {
+        if (headers == null) {
+            return false;
+        }
+        for (String header : headers) {
+            for (String tag : header.split(",")) {
+                tag = tag.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the window parameter ("day", "week" or "all"), defaulting to all-time, or null if it is unknown.
+     */
+    private static GameStats.Window windowParam(Map<String, String> params) {
+        String value = params.get("window");
+        if (value == null || value.equalsIgnoreCase("all")) {
+            return GameStats.Window.ALL_TIME;
+        } else if (value.equalsIgnoreCase("day")) {
+            return GameStats.Window.DAY;
+        } else if (value.equalsIgnoreCase("week")) {
+            return GameStats.Window.WEEK;
+        }
+        return null;
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> params = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            try {
+                params.put(URLDecoder.decode(name, "UTF-8"), URLDecoder.decode(value, "UTF-8"));
+            } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+                // Skip malformed parameters
+            }
+        }
+        return params;
+    }
+
+    /**
+     * Serves the leaderboard file on its own. Usage: {@code LeaderboardServer [port]}
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        LeaderboardServer server = new LeaderboardServer(new GameStats(), port);
+        server.start();
+        System.out.println("Leaderboard API listening on port " + server.getPort());
+    }
+}
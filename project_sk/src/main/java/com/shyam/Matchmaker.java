@@ -0,0 +1,290 @@
+package com.shyam;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Pairs waiting players for human-vs-human matches.
+ *
+ * Players are queued in lock-free rating buckets. A player is first matched against its own
+ * bucket; the search window widens by one bucket on each side for every widening interval the
+ * player has waited. Windows are checked from both sides: a player is only paired with an opponent
+ * in another bucket once both of them have waited long enough to reach the other's bucket.
+ * Players still unmatched after the timeout get a computer opponent.
+ * Claiming a ticket is a single compare-and-set, so no locks are taken anywhere.
+ */
+class Matchmaker {
+    private static final int BUCKET_WIDTH = 100;
+    private static final int BUCKET_COUNT = 32;
+
+    private static final int WAITING = 0;
+    private static final int MATCHING = 1;
+    private static final int MATCHED = 2;
+
+    private final ConcurrentLinkedQueue<Ticket>[] buckets;
+    private final long widenIntervalNanos;
+    private final long timeoutNanos;
+    private final MatchListener listener;
+    private final Supplier<Choice> computerOpponent;
+    private final AtomicLong matchCount = new AtomicLong();
+    private final AtomicLong computerMatchCount = new AtomicLong();
+
+    /**
+     * Notified on the thread that completed the pairing.
+     */
+    interface MatchListener {
+        void onMatch(Match match);
+    }
+
+    /**
+     * A player waiting to be matched.
+     */
+    static class Ticket {
+        private final String playerName;
+        private final int rating;
+        private final long enqueuedAt;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        Ticket(String playerName, int rating) {
+            this.playerName = playerName;
+            this.rating = rating;
+            this.enqueuedAt = System.nanoTime();
+        }
+
+        public String getPlayerName() {
+            return playerName;
+        }
+
+        public int getRating() {
+            return rating;
+        }
+
+        public long getEnqueuedAt() {
+            return enqueuedAt;
+        }
+
+        public boolean isMatched() {
+            return state.get() == MATCHED;
+        }
+    }
+
+    /**
+     * A pairing of two players whose moves are revealed together once both have been submitted.
+     * Against a computer opponent the second ticket is null and its move comes from the supplier.
+     */
+    static class Match {
+        private final Ticket first;
+        private final Ticket second;
+        private final Supplier<Choice> computerOpponent;
+        private final AtomicReferenceArray<Choice> moves = new AtomicReferenceArray<>(2);
+        private final long matchedAt = System.nanoTime();
+        private volatile String result;
+
+        Match(Ticket first, Ticket second, Supplier<Choice> computerOpponent) {
+            this.first = first;
+            this.second = second;
+            this.computerOpponent = computerOpponent;
+        }
+
+        public Ticket getFirst() {
+            return first;
+        }
+
+        public Ticket getSecond() {
+            return second;
+        }
+
+        public boolean isAgainstComputer() {
+            return second == null;
+        }
+
+        public long getMatchedAt() {
+            return matchedAt;
+        }
+
+        /**
+         * Submits a move for one side (0 = first, 1 = second). The first move per side wins.
+         * @return The result from the first player's point of view once both moves are in, otherwise null.
+         */
+        public String submit(int side, Choice choice) {
+            if (!moves.compareAndSet(side, null, choice)) {
+                return result;
+            }
+            if (isAgainstComputer() && side == 0) {
+                moves.compareAndSet(1, null, computerOpponent.get());
+            }
+            Choice firstMove = moves.get(0);
+            Choice secondMove = moves.get(1);
+            if (firstMove != null && secondMove != null && result == null) {
+                result = Choice.determineWinner(firstMove, secondMove);
+            }
+            return result;
+        }
+
+        public Choice getMove(int side) {
+            return moves.get(side);
+        }
+
+        public String getResult() {
+            return result;
+        }
+    }
+
+    /**
+     * Creates a matchmaker.
+     * @param widenInterval Wait time after which the search window grows by one bucket on each side.
+     * @param timeout Wait time after which a player is matched against the computer.
+     * @param unit Time unit of the two durations.
+     * @param listener Receives every completed match.
+     * @param computerOpponent Supplies the computer's moves for fallback matches.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Matchmaker(long widenInterval, long timeout, TimeUnit unit, MatchListener listener,
+                      Supplier<Choice> computerOpponent) {
+        this.widenIntervalNanos = unit.toNanos(widenInterval);
+        this.timeoutNanos = unit.toNanos(timeout);
+        this.listener = listener;
+        this.computerOpponent = computerOpponent;
+        buckets = new ConcurrentLinkedQueue[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /**
+     * Maps a rating to its bucket.
+     */
+    private static int bucketOf(int rating) {
+        return Math.max(0, Math.min(BUCKET_COUNT - 1, rating / BUCKET_WIDTH));
+    }
+
+    /**
+     * Rating used for a difficulty bucket, for callers that match by difficulty instead of rating.
+     */
+    public static int ratingOf(Difficulty difficulty) {
+        return difficulty.ordinal() * BUCKET_WIDTH * (BUCKET_COUNT / Difficulty.values().length);
+    }
+
+    /**
+     * Adds a player to the queue, matching immediately if an opponent is already waiting in its bucket.
+     */
+    public Ticket enqueue(String playerName, int rating) {
+        Ticket ticket = new Ticket(playerName, rating);
+        if (!tryMatch(ticket, 0)) {
+            buckets[bucketOf(rating)].offer(ticket);
+            // An opponent may have queued between the search and the offer
+            tryMatch(ticket, 0);
+        }
+        return ticket;
+    }
+
+    /**
+     * Retries all waiting players with their widened windows and hands timed-out players to the computer.
+     * Intended to be called periodically by one or more matcher threads.
+     * @return The number of matches made.
+     */
+    public int tick() {
+        long now = System.nanoTime();
+        int made = 0;
+        for (ConcurrentLinkedQueue<Ticket> bucket : buckets) {
+            Iterator<Ticket> it = bucket.iterator();
+            while (it.hasNext()) {
+                Ticket ticket = it.next();
+                if (ticket.state.get() == MATCHED) {
+                    it.remove();
+                    continue;
+                }
+                long waited = now - ticket.enqueuedAt;
+                if (waited >= timeoutNanos) {
+                    if (ticket.state.compareAndSet(WAITING, MATCHED)) {
+                        it.remove();
+                        computerMatchCount.incrementAndGet();
+                        publish(new Match(ticket, null, computerOpponent));
+                        made++;
+                    }
+                } else if (tryMatch(ticket, (int) (waited / widenIntervalNanos))) {
+                    made++;
+                }
+            }
+        }
+        return made;
+    }
+
+    /**
+     * Searches the ticket's own bucket and then neighbouring buckets up to the given window for an opponent.
+     */
+    private boolean tryMatch(Ticket ticket, int window) {
+        if (!ticket.state.compareAndSet(WAITING, MATCHING)) {
+            return false;
+        }
+        long now = System.nanoTime();
+        int home = bucketOf(ticket.rating);
+        int reach = Math.min(window, BUCKET_COUNT);
+        for (int distance = 0; distance <= reach; distance++) {
+            Ticket opponent = claimIn(home - distance, ticket, distance, now);
+            if (opponent == null && distance > 0) {
+                opponent = claimIn(home + distance, ticket, distance, now);
+            }
+            if (opponent != null) {
+                ticket.state.set(MATCHED);
+                matchCount.incrementAndGet();
+                publish(new Match(opponent, ticket, computerOpponent));
+                return true;
+            }
+        }
+        ticket.state.set(WAITING);
+        return false;
+    }
+
+    /**
+     * Claims the oldest waiting ticket in a bucket whose own window reaches the given distance,
+     * dropping already matched tickets on the way.
+     */
+    private Ticket claimIn(int bucketIndex, Ticket self, int distance, long now) {
+        if (bucketIndex < 0 || bucketIndex >= BUCKET_COUNT) {
+            return null;
+        }
+        ConcurrentLinkedQueue<Ticket> bucket = buckets[bucketIndex];
+        Iterator<Ticket> it = bucket.iterator();
+        while (it.hasNext()) {
+            Ticket other = it.next();
+            if (other == self) {
+                continue;
+            }
+            int state = other.state.get();
+            if (state == MATCHED) {
+                it.remove();
+            } else if (state == WAITING && (now - other.enqueuedAt) / widenIntervalNanos >= distance
+                    && other.state.compareAndSet(WAITING, MATCHED)) {
+                it.remove();
+                return other;
+            }
+        }
+        return null;
+    }
+
+    private void publish(Match match) {
+        if (listener != null) {
+            listener.onMatch(match);
+        }
+    }
+
+    /**
+     * Gets the number of human-vs-human matches made so far.
+     */
+    public long getMatchCount() {
+        return matchCount.get();
+    }
+
+    /**
+     * Gets the number of players that fell back to a computer opponent.
+     */
+    public long getComputerMatchCount() {
+        return computerMatchCount.get();
+    }
+}
@@ -0,0 +1,115 @@
+package com.shyam;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Simulated player pool for measuring {@link Matchmaker} throughput and wait times.
+ *
+ * By default the whole pool arrives at once, which measures raw pairing throughput: nearly every
+ * player finds an opponent in its own bucket on arrival. With an arrival rate, players trickle in at
+ * that many per second, so players in sparse rating buckets wait, their windows widen and some time
+ * out to a computer opponent, which is what bounds the wait percentiles in practice.
+ *
+ * Usage: {@code MatchmakingSimulation [players] [producerThreads] [arrivalsPerSecond]},
+ * e.g. {@code MatchmakingSimulation 20000 4 2000}
+ */
+class MatchmakingSimulation {
+    private static final int DEFAULT_PLAYERS = 200000;
+    private static final int DEFAULT_PRODUCERS = 4;
+
+    public static void main(String[] args) throws InterruptedException {
+        final int players = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PLAYERS;
+        int producers = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PRODUCERS;
+        int arrivalsPerSecond = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+        // Each producer paces its own share of the arrivals; 0 means no pacing
+        final long arrivalIntervalNanos = arrivalsPerSecond > 0 ? 1000000000L * producers / arrivalsPerSecond : 0;
+
+        // Each human match records the wait of both players, each computer match one
+        final AtomicLongArray waits = new AtomicLongArray(players);
+        final AtomicInteger recorded = new AtomicInteger();
+        final AtomicInteger settled = new AtomicInteger();
+        final Choice[] choices = Choice.values();
+
+        final Matchmaker matchmaker = new Matchmaker(20, 500, TimeUnit.MILLISECONDS, match -> {
+            long now = System.nanoTime();
+            waits.set(recorded.getAndIncrement(), now - match.getFirst().getEnqueuedAt());
+            if (!match.isAgainstComputer()) {
+                waits.set(recorded.getAndIncrement(), now - match.getSecond().getEnqueuedAt());
+                match.submit(1, choices[ThreadLocalRandom.current().nextInt(choices.length)]);
+            }
+            if (match.submit(0, choices[ThreadLocalRandom.current().nextInt(choices.length)]) != null) {
+                settled.incrementAndGet();
+            }
+        }, () -> choices[ThreadLocalRandom.current().nextInt(choices.length)]);
+
+        Thread[] producerThreads = new Thread[producers];
+        final int perProducer = players / producers;
+        final int expected = perProducer * producers;
+        Thread matcher = new Thread(() -> {
+            while (recorded.get() < expected) {
+                pauseMatcher();
+                matchmaker.tick();
+            }
+        }, "matcher");
+        matcher.setDaemon(true);
+
+        final long start = System.nanoTime();
+        matcher.start();
+        for (int p = 0; p < producers; p++) {
+            final int id = p;
+            producerThreads[p] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < perProducer; i++) {
+                    if (arrivalIntervalNanos > 0) {
+                        long delay = start + i * arrivalIntervalNanos - System.nanoTime();
+                        if (delay > 0) {
+                            LockSupport.parkNanos(delay);
+                        }
+                    }
+                    // Ratings roughly normal around 1500
+                    int rating = (int) (1500 + random.nextGaussian() * 300);
+                    matchmaker.enqueue("sim-" + id + "-" + i, rating);
+                }
+            }, "producer-" + p);
+            producerThreads[p].start();
+        }
+        for (Thread t : producerThreads) {
+            t.join();
+        }
+        while (recorded.get() < expected) {
+            Thread.sleep(1);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        int n = recorded.get();
+        long[] sorted = new long[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = waits.get(i);
+        }
+        Arrays.sort(sorted);
+        long pairings = matchmaker.getMatchCount() + matchmaker.getComputerMatchCount();
+        System.out.println(arrivalsPerSecond > 0 ? "Arrivals: " + arrivalsPerSecond + "/s" : "Arrivals: all at once");
+        System.out.printf("Players: %d, human matches: %d, computer fallbacks: %d, settled: %d%n",
+            n, matchmaker.getMatchCount(), matchmaker.getComputerMatchCount(), settled.get());
+        System.out.printf("Pairings/sec: %.0f%n", pairings / (elapsed / 1e9));
+        System.out.printf("Wait p50: %.3f ms, p99: %.3f ms, max: %.3f ms%n",
+            percentile(sorted, 0.50), percentile(sorted, 0.99), sorted[n - 1] / 1e6);
+    }
+
+    private static void pauseMatcher() {
+        try {
+            Thread.sleep(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.floor(p * sorted.length))] / 1e6;
+    }
+}
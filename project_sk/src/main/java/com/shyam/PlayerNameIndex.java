@@ -0,0 +1,315 @@
+package com.shyam;
+
+import java.util.*;
+
+/**
+ * Index of player names for exact, case-insensitive and prefix lookups.
+ *
+ * Exact lookups go through a hash map. Case-insensitive and prefix lookups binary search a sorted
+ * array of lower-cased names, so a prefix query costs a few searches however many names match.
+ * Players added since the last merge wait in a small side array, sorted on the next search and
+ * searched alongside the main one; they are merged into the main array only once there are more
+ * than about the square root of its size, so a stream of additions does not rewrite it every time.
+ * Removed players are cut out of the main array in place.
+ *
+ * Each name is stored once: {@link #canonical} returns the indexed instance so that other maps can
+ * share it, and a lower-cased key reuses the name itself when the name is already lower case.
+ * Not thread-safe; {@link GameStats} guards it with its own lock.
+ */
+class PlayerNameIndex {
+    // Pending additions merged into the main array once there are more than this or its square root
+    private static final int MIN_PENDING = 16;
+
+    /**
+     * The order of search results: by lower-cased name, then name.
+     */
+    static final Comparator<GameStats.PlayerStats> NAME_ORDER =
+        (a, b) -> compare(fold(a.getName()), a, fold(b.getName()), b);
+
+    private final Map<String, GameStats.PlayerStats> byName = new HashMap<>();
+
+    // Sorted by lower-cased name, then name; only the first mainSize entries are used, all live
+    private String[] keys = new String[0];
+    private GameStats.PlayerStats[] players = new GameStats.PlayerStats[0];
+    private int mainSize;
+
+    // Players added since the last merge, in arrival order; may contain replaced or removed players
+    private final List<GameStats.PlayerStats> added = new ArrayList<>();
+    // The live ones among them, sorted like the main array; rebuilt on the next search after an addition
+    private String[] addedKeys = new String[0];
+    private GameStats.PlayerStats[] addedPlayers = new GameStats.PlayerStats[0];
+    private boolean addedSorted = true;
+
+    public GameStats.PlayerStats get(String name) {
+        return byName.get(name);
+    }
+
+    public int size() {
+        return byName.size();
+    }
+
+    /**
+     * Gets the indexed instance of a name, or the name itself if it is not indexed.
+     */
+    public String canonical(String name) {
+        GameStats.PlayerStats stats = byName.get(name);
+        return stats == null ? name : stats.getName();
+    }
+
+    /**
+     * Adds a player, replacing any player with the same name.
+     */
+    public void add(GameStats.PlayerStats stats) {
+        GameStats.PlayerStats previous = byName.put(stats.getName(), stats);
+        if (previous == stats) {
+            return;
+        }
+        int position = previous == null ? -1 : mainPosition(previous);
+        if (position >= 0) {
+            // Same name, so the same place in the main array
+            players[position] = stats;
+            return;
+        }
+        added.add(stats);
+        addedSorted = false;
+    }
+
+    public void remove(GameStats.PlayerStats stats) {
+        if (!byName.remove(stats.getName(), stats)) {
+            return;
+        }
+        int position = mainPosition(stats);
+        if (position >= 0) {
+            System.arraycopy(keys, position + 1, keys, position, mainSize - position - 1);
+            System.arraycopy(players, position + 1, players, position, mainSize - position - 1);
+            mainSize--;
+            keys[mainSize] = null;
+            players[mainSize] = null;
+        } else {
+            // Still waiting to be merged; dropped when the pending players are next sorted
+            addedSorted = false;
+        }
+    }
+
+    public void clear() {
+        byName.clear();
+        keys = new String[0];
+        players = new GameStats.PlayerStats[0];
+        mainSize = 0;
+        added.clear();
+        addedKeys = new String[0];
+        addedPlayers = new GameStats.PlayerStats[0];
+        addedSorted = true;
+    }
+
+    /**
+     * Gets every player whose name equals the given one, ignoring case, in name order.
+     */
+    public List<GameStats.PlayerStats> findIgnoreCase(String name) {
+        prepare();
+        String key = fold(name);
+        int i = lowerBound(keys, mainSize, key);
+        int j = lowerBound(addedKeys, addedKeys.length, key);
+        List<GameStats.PlayerStats> found = new ArrayList<>();
+        while ((i < mainSize && keys[i].equals(key)) || (j < addedKeys.length && addedKeys[j].equals(key))) {
+            if (j == addedKeys.length || !addedKeys[j].equals(key)
+                    || (i < mainSize && keys[i].equals(key)
+                        && compare(keys[i], players[i], addedKeys[j], addedPlayers[j]) <= 0)) {
+                found.add(players[i++]);
+            } else {
+                found.add(addedPlayers[j++]);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Counts the players whose name starts with the given prefix, ignoring case.
+     */
+    public int countByPrefix(String prefix) {
+        prepare();
+        String key = fold(prefix);
+        return prefixEnd(keys, mainSize, key) - lowerBound(keys, mainSize, key)
+            + prefixEnd(addedKeys, addedKeys.length, key) - lowerBound(addedKeys, addedKeys.length, key);
+    }
+
+    /**
+     * Gets one page, starting at page 0, of the players whose name starts with the given prefix,
+     * ignoring case, in name order.
+     */
+    public List<GameStats.PlayerStats> findByPrefix(String prefix, int page, int pageSize) {
+        prepare();
+        String key = fold(prefix);
+        int mainStart = lowerBound(keys, mainSize, key);
+        int mainEnd = prefixEnd(keys, mainSize, key);
+        int addedStart = lowerBound(addedKeys, addedKeys.length, key);
+        int addedEnd = prefixEnd(addedKeys, addedKeys.length, key);
+        long skip = (long) Math.max(0, page) * pageSize;
+        if (skip >= (mainEnd - mainStart) + (addedEnd - addedStart)) {
+            return new ArrayList<>();
+        }
+
+        // The pending players before the page are those whose merged position is below skip
+        int j = addedStart;
+        while (j < addedEnd
+                && (j - addedStart) + mainLowerBound(mainStart, mainEnd, addedKeys[j], addedPlayers[j]) - mainStart < skip) {
+            j++;
+        }
+        int i = (int) (mainStart + skip - (j - addedStart));
+
+        List<GameStats.PlayerStats> found = new ArrayList<>(Math.min(pageSize, mainEnd - i + addedEnd - j));
+        while (found.size() < pageSize && (i < mainEnd || j < addedEnd)) {
+            if (j == addedEnd || (i < mainEnd && compare(keys[i], players[i], addedKeys[j], addedPlayers[j]) <= 0)) {
+                found.add(players[i++]);
+            } else {
+                found.add(addedPlayers[j++]);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Finds a player in the main array by binary search, or -1 if it is not there.
+     */
+    private int mainPosition(GameStats.PlayerStats stats) {
+        int position = mainLowerBound(0, mainSize, fold(stats.getName()), stats);
+        return position < mainSize && players[position] == stats ? position : -1;
+    }
+
+    /**
+     * Gets the first of the first length positions whose key is not less than the given key.
+     */
+    private static int lowerBound(String[] keys, int length, String key) {
+        int low = 0;
+        int high = length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Gets the first main array position in [low, high) that does not sort before the given player.
+     */
+    private int mainLowerBound(int low, int high, String key, GameStats.PlayerStats stats) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(keys[mid], players[mid], key, stats) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Gets the first of the first length positions after the keys starting with the given prefix.
+     */
+    private static int prefixEnd(String[] keys, int length, String prefix) {
+        int low = lowerBound(keys, length, prefix);
+        int high = length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].startsWith(prefix)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private boolean isLive(GameStats.PlayerStats stats) {
+        return byName.get(stats.getName()) == stats;
+    }
+
+    /**
+     * Sorts the players added since the last search, or merges them into the main array once there
+     * are too many of them to search alongside it.
+     */
+    private void prepare() {
+        if (addedSorted) {
+            return;
+        }
+        // Fold each live name once, then sort the new players by the folded keys
+        List<GameStats.PlayerStats> live = new ArrayList<>(added.size());
+        for (GameStats.PlayerStats stats : added) {
+            if (isLive(stats)) {
+                live.add(stats);
+            }
+        }
+        final String[] liveKeys = new String[live.size()];
+        Integer[] order = new Integer[live.size()];
+        for (int k = 0; k < liveKeys.length; k++) {
+            liveKeys[k] = fold(live.get(k).getName());
+            order[k] = k;
+        }
+        Arrays.sort(order, (x, y) -> compare(liveKeys[x], live.get(x), liveKeys[y], live.get(y)));
+        // A player added, removed and added again appears twice
+        int count = 0;
+        String[] sortedKeys = new String[order.length];
+        GameStats.PlayerStats[] sorted = new GameStats.PlayerStats[order.length];
+        for (Integer k : order) {
+            if (count == 0 || sorted[count - 1] != live.get(k)) {
+                sortedKeys[count] = liveKeys[k];
+                sorted[count++] = live.get(k);
+            }
+        }
+        addedKeys = Arrays.copyOf(sortedKeys, count);
+        addedPlayers = Arrays.copyOf(sorted, count);
+        added.clear();
+        added.addAll(Arrays.asList(addedPlayers));
+        addedSorted = true;
+
+        if (count > Math.max(MIN_PENDING, (int) Math.sqrt(mainSize))) {
+            merge();
+        }
+    }
+
+    /**
+     * Merges the sorted pending players into the main array.
+     */
+    private void merge() {
+        int total = mainSize + addedPlayers.length;
+        String[] mergedKeys = new String[total];
+        GameStats.PlayerStats[] merged = new GameStats.PlayerStats[total];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < mainSize || j < addedPlayers.length) {
+            if (j == addedPlayers.length
+                    || (i < mainSize && compare(keys[i], players[i], addedKeys[j], addedPlayers[j]) <= 0)) {
+                mergedKeys[count] = keys[i];
+                merged[count++] = players[i++];
+            } else {
+                mergedKeys[count] = addedKeys[j];
+                merged[count++] = addedPlayers[j++];
+            }
+        }
+        keys = mergedKeys;
+        players = merged;
+        mainSize = total;
+        added.clear();
+        addedKeys = new String[0];
+        addedPlayers = new GameStats.PlayerStats[0];
+    }
+
+    private static int compare(String key, GameStats.PlayerStats stats, String otherKey, GameStats.PlayerStats other) {
+        int byKey = key.compareTo(otherKey);
+        return byKey != 0 ? byKey : stats.getName().compareTo(other.getName());
+    }
+
+    /**
+     * Lower-cases a name, reusing the name itself when it is already lower case.
+     */
+    private static String fold(String name) {
+        String folded = name.toLowerCase(Locale.ROOT);
+        return folded.equals(name) ? name : folded;
+    }
+}
@@ -0,0 +1,151 @@
+package com.shyam;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * What the computer has learned about one player's habits: how often each move is played, and
+ * which move tends to follow which. Kept across games and sessions by the {@link PlayerProfileStore}.
+ *
+ * Counts are halved once a player has many recorded moves, so that recent habits outweigh old
+ * ones and every count stays small on disk. Not thread-safe; the store hands out copies.
+ */
+class PlayerProfile {
+    private static final int DECAY_THRESHOLD = 4096;
+    private static final int MIN_TRANSITIONS = 3;
+    private static final Choice[] CHOICES = Choice.values();
+
+    private final int[] moveCounts = new int[3];
+    // transitionCounts[previous * 3 + next]
+    private final int[] transitionCounts = new int[9];
+    private int totalMoves;
+    // Player's previous move in this session, or -1; not persisted
+    private int previousMove = -1;
+
+    /**
+     * Records a move the player made.
+     */
+    public void observe(Choice move) {
+        int next = move.ordinal();
+        moveCounts[next]++;
+        if (previousMove >= 0) {
+            transitionCounts[previousMove * 3 + next]++;
+        }
+        previousMove = next;
+        if (++totalMoves >= DECAY_THRESHOLD) {
+            decay();
+        }
+    }
+
+    /**
+     * Predicts the player's next move: the most common follow-up to their previous move when that
+     * has been seen often enough, otherwise their most common move.
+     * @return The predicted move, or null if nothing has been recorded yet.
+     */
+    public Choice predictNext() {
+        if (previousMove >= 0) {
+            int row = previousMove * 3;
+            int seen = transitionCounts[row] + transitionCounts[row + 1] + transitionCounts[row + 2];
+            if (seen >= MIN_TRANSITIONS) {
+                return CHOICES[argMax(transitionCounts, row)];
+            }
+        }
+        return totalMoves == 0 ? null : CHOICES[argMax(moveCounts, 0)];
+    }
+
+    private static int argMax(int[] counts, int offset) {
+        int best = 0;
+        for (int i = 1; i < 3; i++) {
+            if (counts[offset + i] > counts[offset + best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    private void decay() {
+        totalMoves = 0;
+        for (int i = 0; i < moveCounts.length; i++) {
+            moveCounts[i] /= 2;
+            totalMoves += moveCounts[i];
+        }
+        for (int i = 0; i < transitionCounts.length; i++) {
+            transitionCounts[i] /= 2;
+        }
+    }
+
+    /**
+     * Adds the counts recorded in another profile, e.g. moves played before this one finished loading.
+     * The other profile's previous move is taken over if it has one.
+     */
+    public void merge(PlayerProfile other) {
+        for (int i = 0; i < moveCounts.length; i++) {
+            moveCounts[i] += other.moveCounts[i];
+        }
+        for (int i = 0; i < transitionCounts.length; i++) {
+            transitionCounts[i] += other.transitionCounts[i];
+        }
+        totalMoves += other.totalMoves;
+        if (other.previousMove >= 0) {
+            previousMove = other.previousMove;
+        }
+        if (totalMoves >= DECAY_THRESHOLD) {
+            decay();
+        }
+    }
+
+    public PlayerProfile copy() {
+        PlayerProfile copy = new PlayerProfile();
+        copy.merge(this);
+        return copy;
+    }
+
+    public int getTotalMoves() {
+        return totalMoves;
+    }
+
+    /**
+     * Writes the counts as varints, usually one byte each.
+     */
+    void write(DataOutput out) throws IOException {
+        for (int count : moveCounts) {
+            writeVarInt(out, count);
+        }
+        for (int count : transitionCounts) {
+            writeVarInt(out, count);
+        }
+    }
+
+    static PlayerProfile read(DataInput in) throws IOException {
+        PlayerProfile profile = new PlayerProfile();
+        for (int i = 0; i < profile.moveCounts.length; i++) {
+            profile.moveCounts[i] = readVarInt(in);
+            profile.totalMoves += profile.moveCounts[i];
+        }
+        for (int i = 0; i < profile.transitionCounts.length; i++) {
+            profile.transitionCounts[i] = readVarInt(in);
+        }
+        return profile;
+    }
+
+    private static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in player profile");
+    }
+}
@@ -0,0 +1,192 @@
+package com.shyam;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persistent {@link PlayerProfile}s, with the most recently used ones cached in memory.
+ *
+ * Profiles are loaded and saved on a single background thread, so reading or writing the
+ * profile file never blocks the game. The file is a magic number followed by one record per
+ * player: the UTF-8 name and the profile's counts as varints, about 20 bytes per player.
+ * Saves rewrite the file through a temporary file, so a crash never leaves it half written, and
+ * move a file that is not a profile file aside instead of overwriting it.
+ */
+class PlayerProfileStore {
+    private static final String PROFILE_FILE = "player_profiles.dat";
+    private static final int DEFAULT_CAPACITY = 256;
+    private static final int MAGIC = 0x52505350; // "RPSP"
+
+    private final File profileFile;
+    private final ExecutorService io;
+    // Most recently used profiles, or their pending loads; snapshots only, never mutated
+    private final LinkedHashMap<String, CompletableFuture<PlayerProfile>> cache;
+    // Profiles saved but not yet written to disk; guarded by this
+    private final Map<String, PlayerProfile> unwritten = new HashMap<>();
+
+    public PlayerProfileStore() {
+        this(PROFILE_FILE, DEFAULT_CAPACITY);
+    }
+
+    public PlayerProfileStore(String profileFile, final int capacity) {
+        this.profileFile = new File(profileFile);
+        this.cache = new LinkedHashMap<String, CompletableFuture<PlayerProfile>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<PlayerProfile>> eldest) {
+                return size() > capacity;
+            }
+        };
+        io = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "player-profiles");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Gets a player's profile, reading it from disk in the background unless it is cached.
+     * Concurrent requests for the same player share one read. The profile is shared: copy it
+     * before changing it.
+     * @return The profile, or an empty one for a new player.
+     */
+    public synchronized CompletableFuture<PlayerProfile> load(final String name) {
+        CompletableFuture<PlayerProfile> profile = cache.get(name);
+        if (profile == null) {
+            profile = CompletableFuture.supplyAsync(() -> read(name), io);
+            cache.put(name, profile);
+        }
+        return profile;
+    }
+
+    /**
+     * Saves a snapshot of a player's profile, caching it and writing it to disk in the background.
+     */
+    public void save(String name, PlayerProfile profile) {
+        PlayerProfile snapshot = profile.copy();
+        synchronized (this) {
+            cache.put(name, CompletableFuture.completedFuture(snapshot));
+            unwritten.put(name, snapshot);
+        }
+        io.execute(this::writeUnwritten);
+    }
+
+    /**
+     * Stops the background thread, waiting up to ten seconds for the profiles already saved to be written.
+     */
+    public void close() throws InterruptedException {
+        io.shutdown();
+        io.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private PlayerProfile read(String name) {
+        synchronized (this) {
+            // Saved but not written yet, e.g. evicted from the cache right after a save
+            PlayerProfile pending = unwritten.get(name);
+            if (pending != null) {
+                return pending;
+            }
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(profileFile)))) {
+            if (in.readInt() != MAGIC) {
+                System.err.println("Error reading player profiles: not a profile file");
+                return new PlayerProfile();
+            }
+            while (true) {
+                String recordName = in.readUTF();
+                PlayerProfile profile = PlayerProfile.read(in);
+                if (recordName.equals(name)) {
+                    return profile;
+                }
+            }
+        } catch (FileNotFoundException | EOFException e) {
+            // No profiles saved yet, or the player is not in the file
+        } catch (IOException e) {
+            System.err.println("Error reading player profiles: " + e.getMessage());
+        }
+        return new PlayerProfile();
+    }
+
+    /**
+     * Rewrites the profile file with every unwritten profile, copying the other records unchanged.
+     * Runs on the background thread only.
+     */
+    private void writeUnwritten() {
+        Map<String, PlayerProfile> updates;
+        synchronized (this) {
+            if (unwritten.isEmpty()) {
+                return; // Already written together with an earlier save
+            }
+            updates = new HashMap<>(unwritten);
+        }
+
+        File temp = new File(profileFile.getPath() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                Map<String, PlayerProfile> remaining = new HashMap<>(updates);
+                copyExisting(out, remaining);
+                for (Map.Entry<String, PlayerProfile> entry : remaining.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    entry.getValue().write(out);
+                }
+            }
+            Files.move(temp.toPath(), profileFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.err.println("Error saving player profiles: " + e.getMessage());
+            return;
+        }
+
+        synchronized (this) {
+            // Keep profiles that were saved again while writing
+            for (Map.Entry<String, PlayerProfile> entry : updates.entrySet()) {
+                unwritten.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Copies the existing records, replacing those with updates and removing them from the map.
+     * A file that is not a profile file is moved aside rather than overwritten.
+     */
+    private void copyExisting(DataOutputStream out, Map<String, PlayerProfile> updates) throws IOException {
+        boolean notProfileFile = false;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(profileFile)))) {
+            if (in.readInt() != MAGIC) {
+                notProfileFile = true;
+                return;
+            }
+            while (true) {
+                String name = in.readUTF();
+                PlayerProfile profile = PlayerProfile.read(in);
+                PlayerProfile update = updates.remove(name);
+                out.writeUTF(name);
+                (update != null ? update : profile).write(out);
+            }
+        } catch (FileNotFoundException e) {
+            // First save
+        } catch (EOFException e) {
+            // Empty or truncated file; keep the records that were complete
+        } finally {
+            if (notProfileFile) {
+                moveAside();
+            }
+        }
+    }
+
+    /**
+     * Renames an unrecognised profile file so that saving does not destroy it.
+     */
+    private void moveAside() throws IOException {
+        File aside = new File(profileFile.getPath() + ".bad-" + System.currentTimeMillis());
+        Files.move(profileFile.toPath(), aside.toPath());
+        System.err.println("Error reading player profiles: not a profile file, moved to " + aside.getPath());
+    }
+}
@@ -7,87 +7,10 @@ import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
-
-/**
- * Represents the choices in the Rock, Paper, Scissors game.
- */
-enum Choice {
-    ROCK,
-    PAPER,
-    SCISSORS;
-
-    /**
-     * Determines the winner between two choices.
-     * @param playerChoice The player's choice.
-     * @param computerChoice The computer's choice.
-     * @return A string indicating the result: "Draw!", "Win!", or "Lose!".
-     */
-    public static String determineWinner(Choice playerChoice, Choice computerChoice) {
-        if (playerChoice == computerChoice) {
-            return "Draw!";
-        } else if ((playerChoice == ROCK && computerChoice == SCISSORS) ||
-                   (playerChoice == PAPER && computerChoice == ROCK) ||
-                   (playerChoice == SCISSORS && computerChoice == PAPER)) {
-            return "Win!";
-        } else {
-            return "Lose!";
-        }
-    }
-}
-
-/**
- * Represents the result of a single round in the game.
- */
-class RoundResult {
-    private Choice playerChoice;
-    private Choice computerChoice;
-    private String result;
-    private long timestamp;
-    
-    public RoundResult(Choice playerChoice, Choice computerChoice, String result) {
-        this.playerChoice = playerChoice;
-        this.computerChoice = computerChoice;
-        this.result = result;
-        this.timestamp = System.currentTimeMillis();
-    }
-    
-    public Choice getPlayerChoice() {
-        return playerChoice;
-    }
-    
-    public Choice getComputerChoice() {
-        return computerChoice;
-    }
-    
-    public String getResult() {
-        return result;
-    }
-    
-    public long getTimestamp() {
-        return timestamp;
-    }
-    
-    @Override
-    public String toString() {
-        return String.format(
-            "[%s] You: %s, Computer: %s, Result: %s",
-            new java.util.Date(timestamp),
-            playerChoice,
-            computerChoice,
-            result
-        );
-    }
-}
-
-/**
- * Represents the difficulty levels for the game.
- */
-enum Difficulty {
-    EASY, MEDIUM, HARD
-}
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * A professional implementation of the Rock, Paper, Scissors game with a Swing GUI.
@@ -99,21 +22,38 @@ class RPSGame extends JFrame {
     private JLabel computerChoiceLabel;
     private JLabel resultLabel;
     private JLabel scoreLabel;
+    private final List<JButton> choiceButtons = new ArrayList<>();
+
+    // Label texts are precomputed so that showing a round builds no strings
+    private static final Color WIN_COLOR = new Color(0, 150, 0); // Green for win
+    private static final Color LOSE_COLOR = Color.RED; // Red for lose
+    private static final Color DRAW_COLOR = Color.BLUE; // Blue for draw
+    private static final String[] PLAYER_CHOICE_TEXT = new String[Choice.values().length * 2];
+    private static final String[] COMPUTER_CHOICE_TEXT = new String[Choice.values().length];
+    private static final int LEADERBOARD_DIALOG_SIZE = 5;
+
+    static {
+        for (Choice choice : Choice.values()) {
+            PLAYER_CHOICE_TEXT[choice.ordinal() * 2] = "Your Choice: " + choice.name();
+            PLAYER_CHOICE_TEXT[choice.ordinal() * 2 + 1] = "Your Choice: " + choice.name() + " (Timeout)";
+            COMPUTER_CHOICE_TEXT[choice.ordinal()] = "Computer's Choice: " + choice.name();
+        }
+    }
 
-    private int playerScore = 0;
-    private int computerScore = 0;
     private int maxRounds = 3;  // Default to 3 rounds
-    private int roundsPlayed = 0;
     private Difficulty difficulty = Difficulty.EASY;  // Default difficulty
-    private Choice previousComputerChoice = null;
-    private int[] playerChoiceFrequency = new int[3]; // Track Rock(0), Paper(1), Scissors(2) choices
     private GameStats gameStats;
-    private int totalGames = 0;
-    private int totalWins = 0;
-    private int totalLosses = 0;
-    private int totalDraws = 0;
     private String playerName = "Player";
-    private List<RoundResult> gameHistory;
+    private String[][] scoreText;
+    private RoundHistory gameHistory;
+    private RoundLog roundLog;
+    private AdaptiveOpponent adaptiveOpponent;
+    private RoundEventBus roundEvents;
+    private RoundMetrics roundMetrics;
+    private SpectatorFeed spectatorFeed;
+    private RoundEngine roundEngine;
+    private final PlayerProfileStore playerProfiles = new PlayerProfileStore();
+    private final GameActionListener gameActionListener = new GameActionListener();
     
     /**
      * Constructs the RPSGame frame, setting up the GUI components and layout.
@@ -147,11 +87,57 @@ class RPSGame extends JFrame {
 
         // Initialize game stats
         gameStats = new GameStats();
-        gameHistory = new ArrayList<>();
+        startLeaderboardServer();
+        roundLog = new RoundLog();
+        // Blocks stay open across games and are written when full or a minute old; write the rest on exit
+        Runtime.getRuntime().addShutdownHook(new Thread(roundLog::close, "round-log-close"));
+        gameHistory = new RoundHistory(roundLog);
+        adaptiveOpponent = new AdaptiveOpponent();
+        if (difficulty == Difficulty.ADAPTIVE) {
+            adaptiveOpponent.seedFrom(roundLog, playerName);
+        }
+        
+        // Each round is published once; display, sound, history, stats, metrics and spectators consume it independently
+        roundEvents = new RoundEventBus();
+        roundMetrics = new RoundMetrics();
+        spectatorFeed = new SpectatorFeed();
+        roundEvents.addHandler("display", new DisplayHandler());
+        roundEvents.addHandler("sound", new SoundHandler());
+        roundEvents.addHandler("history", gameHistory);
+        roundEvents.addHandler("stats", new StatsHandler(gameStats));
+        roundEvents.addHandler("metrics", roundMetrics);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> System.out.println("Round metrics: " + roundMetrics),
+            "round-metrics-report"));
+        roundEvents.addHandler("spectators", spectatorFeed);
+        roundEngine = new RoundEngine(playerName, maxRounds, difficulty, adaptiveOpponent, playerProfiles,
+            roundEvents);
+        
+        // Scores never exceed the number of rounds
+        scoreText = new String[maxRounds + 1][maxRounds + 1];
+        for (int player = 0; player <= maxRounds; player++) {
+            for (int computer = 0; computer <= maxRounds; computer++) {
+                scoreText[player][computer] = String.format("Score: Player %d - Computer %d", player, computer);
+            }
+        }
         
         updateScoreLabel();
     }
     
+    /**
+     * Starts the leaderboard HTTP API if a port is given with -Drps.http.port=PORT.
+     */
+    private void startLeaderboardServer() {
+        Integer port = Integer.getInteger("rps.http.port");
+        if (port == null) {
+            return;
+        }
+        try {
+            new LeaderboardServer(gameStats, port).start();
+        } catch (IOException e) {
+            System.err.println("Error starting leaderboard server: " + e.getMessage());
+        }
+    }
+    
     /**
      * Sets up game preferences via dialog boxes.
      */
@@ -170,6 +156,8 @@ class RPSGame extends JFrame {
         if (playerName == null || playerName.trim().isEmpty()) {
             playerName = "Player"; // default
         }
+        // Start reading the player's profile while the remaining dialogs are shown
+        playerProfiles.load(playerName);
         
         // Prompt user to select number of rounds
         String[] roundOptions = {"3", "5", "10"};
@@ -190,7 +178,7 @@ class RPSGame extends JFrame {
         }
         
         // Prompt user to select difficulty level
-        String[] difficultyOptions = {"Easy", "Medium", "Hard"};
+        String[] difficultyOptions = {"Easy", "Medium", "Hard", "Adaptive"};
         String difficultyInput = (String) JOptionPane.showInputDialog(
             this,
             "Select difficulty level:",
@@ -206,6 +194,7 @@ class RPSGame extends JFrame {
                 case "Easy": difficulty = Difficulty.EASY; break;
                 case "Medium": difficulty = Difficulty.MEDIUM; break;
                 case "Hard": difficulty = Difficulty.HARD; break;
+                case "Adaptive": difficulty = Difficulty.ADAPTIVE; break;
             }
         } else {
             difficulty = Difficulty.EASY; // default
@@ -245,26 +234,21 @@ class RPSGame extends JFrame {
         panel.setBorder(new EmptyBorder(10, 0, 10, 0)); // Padding
 
         JButton rockButton = createIconButton("🪨", Choice.ROCK.name());
-        rockButton.addActionListener(e -> {
-            playButtonSound();
-            new GameActionListener().actionPerformed(e);
-        });
+        rockButton.addActionListener(gameActionListener);
         panel.add(rockButton);
 
         JButton paperButton = createIconButton("📄", Choice.PAPER.name());
-        paperButton.addActionListener(e -> {
-            playButtonSound();
-            new GameActionListener().actionPerformed(e);
-        });
+        paperButton.addActionListener(gameActionListener);
         panel.add(paperButton);
 
         JButton scissorsButton = createIconButton("✂️", Choice.SCISSORS.name());
-        scissorsButton.addActionListener(e -> {
-            playButtonSound();
-            new GameActionListener().actionPerformed(e);
-        });
+        scissorsButton.addActionListener(gameActionListener);
         panel.add(scissorsButton);
 
+        choiceButtons.add(rockButton);
+        choiceButtons.add(paperButton);
+        choiceButtons.add(scissorsButton);
+
         return panel;
     }
     
@@ -320,11 +304,20 @@ class RPSGame extends JFrame {
         return panel;
     }
 
+    /**
+     * Enables or disables the Rock, Paper, and Scissors buttons. Must be called on the Event Dispatch Thread.
+     */
+    private void setChoiceButtonsEnabled(boolean enabled) {
+        for (JButton button : choiceButtons) {
+            button.setEnabled(enabled);
+        }
+    }
+
     /**
      * Updates the score label with the current player and computer scores.
      */
     private void updateScoreLabel() {
-        scoreLabel.setText(String.format("Score: Player %d - Computer %d", playerScore, computerScore));
+        scoreLabel.setText(scoreText[roundEngine.getPlayerScore()][roundEngine.getComputerScore()]);
     }
     
     /**
@@ -332,10 +325,11 @@ class RPSGame extends JFrame {
      */
     private void showLeaderboard() {
         StringBuilder sb = new StringBuilder();
-        sb.append("Top 5 Players:\n\n");
+        sb.append("Top ").append(LEADERBOARD_DIALOG_SIZE).append(" Players:\n\n");
         
-        for (int i = 0; i < Math.min(5, gameStats.getLeaderboard().size()); i++) {
-            GameStats.PlayerStats player = gameStats.getLeaderboard().get(i);
+        List<GameStats.PlayerStats> topPlayers = gameStats.getTopPlayers(LEADERBOARD_DIALOG_SIZE);
+        for (int i = 0; i < topPlayers.size(); i++) {
+            GameStats.PlayerStats player = topPlayers.get(i);
             sb.append(String.format(
                 "%d. %s - Wins: %d, Losses: %d, Draws: %d, Win Rate: %.2f%%\n",
                 i + 1,
@@ -363,13 +357,15 @@ class RPSGame extends JFrame {
         sb.append("Last 10 Rounds:\n\n");
         
         // Show last 10 rounds or all rounds if less than 10
-        int start = Math.max(0, gameHistory.size() - 10);
-        for (int i = start; i < gameHistory.size(); i++) {
-            sb.append(String.format("%d. %s\n", i + 1, gameHistory.get(i).toString()));
+        int roundCount = gameHistory.getRoundCount();
+        List<RoundResult> recentRounds = gameHistory.getRecentRounds();
+        int start = roundCount - recentRounds.size();
+        for (int i = 0; i < recentRounds.size(); i++) {
+            sb.append(String.format("%d. %s\n", start + i + 1, recentRounds.get(i).toString()));
         }
         
         // If no rounds have been played yet
-        if (gameHistory.isEmpty()) {
+        if (recentRounds.isEmpty()) {
             sb.append("No rounds have been played yet.\n");
         }
         
@@ -389,259 +385,169 @@ class RPSGame extends JFrame {
     }
 
     /**
-     * Generates a choice for the computer based on the selected difficulty.
-     * @return The computer's selected Choice.
+     * ActionListener for the game buttons. Handles player's choice and starts the timer for the next round.
+     * Shared by all three buttons so that a click cancels the timer started by the previous round.
      */
-    private Choice getComputerChoice() {
-        Choice[] choices = Choice.values();
-        Random random = new Random();
-        
-        switch (difficulty) {
-            case EASY:
-                // Random choices (current behavior)
-                return choices[random.nextInt(choices.length)];
-                
-            case MEDIUM:
-                // Avoid repeating the previous computer choice
-                Choice newChoice;
-                do {
-                    newChoice = choices[random.nextInt(choices.length)];
-                } while (previousComputerChoice != null && newChoice == previousComputerChoice);
-                
-                previousComputerChoice = newChoice;
-                return newChoice;
-                
-            case HARD:
-                // Predict player's most frequent choice and counter it
-                int mostFrequentPlayerChoiceIndex = 0;
-                int maxFrequency = 0;
-                
-                // Find the player's most frequent choice
-                for (int i = 0; i < playerChoiceFrequency.length; i++) {
-                    if (playerChoiceFrequency[i] > maxFrequency) {
-                        maxFrequency = playerChoiceFrequency[i];
-                        mostFrequentPlayerChoiceIndex = i;
-                    }
-                }
-                
-                // Counter the most frequent player choice
-                Choice mostFrequentPlayerChoice = choices[mostFrequentPlayerChoiceIndex];
-                Choice counterChoice;
-                
-                if (mostFrequentPlayerChoice == Choice.ROCK) {
-                    counterChoice = Choice.PAPER; // Paper beats Rock
-                } else if (mostFrequentPlayerChoice == Choice.PAPER) {
-                    counterChoice = Choice.SCISSORS; // Scissors beats Paper
-                } else {
-                    counterChoice = Choice.ROCK; // Rock beats Scissors
+    private class GameActionListener implements ActionListener {
+        // A single 5-second timer, restarted for every round
+        private final Timer roundTimer = new Timer(5000, new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                // Timeout reached - auto-generate a random player choice
+                if (roundEngine.playRound(roundEngine.randomChoice(), true)) {
+                    setChoiceButtonsEnabled(false);
                 }
                 
-                previousComputerChoice = counterChoice;
-                return counterChoice;
-                
-            default:
-                return choices[random.nextInt(choices.length)];
+                // Stop the timer
+                ((Timer)e.getSource()).stop();
+            }
+        });
+        
+        GameActionListener() {
+            roundTimer.setRepeats(false); // Execute only once
         }
-    }
-
-    /**
-     * ActionListener for the game buttons. Handles player's choice and updates game state.
-     */
-    private class GameActionListener implements ActionListener {
-        private Timer roundTimer;
         
         @Override
         public void actionPerformed(ActionEvent e) {
             // Cancel any existing timer for the current round
-            if (roundTimer != null && roundTimer.isRunning()) {
+            if (roundTimer.isRunning()) {
                 roundTimer.stop();
             }
             
             Choice playerChoice = Choice.valueOf(e.getActionCommand());
             
-            // Update player choice frequency for HARD difficulty
-            if (playerChoice == Choice.ROCK) {
-                playerChoiceFrequency[0]++;
-            } else if (playerChoice == Choice.PAPER) {
-                playerChoiceFrequency[1]++;
-            } else if (playerChoice == Choice.SCISSORS) {
-                playerChoiceFrequency[2]++;
+            // Start a new timer for the next round; after the last round the buttons stay disabled and the
+            // timer stays off until the game over dialog closes
+            if (roundEngine.playRound(playerChoice, false)) {
+                setChoiceButtonsEnabled(false);
+            } else {
+                startNewRoundTimer();
             }
-            
-            Choice computerChoice = getComputerChoice();
-
-            playerChoiceLabel.setText("Your Choice: " + playerChoice.name());
-            computerChoiceLabel.setText("Computer's Choice: " + computerChoice.name());
-
-            String result = Choice.determineWinner(playerChoice, computerChoice);
-            resultLabel.setText("Result: " + result);
-
-            // Update score and result label color based on outcome
-            switch (result) {
-                case "Win!":
-                    playerScore++;
-                    resultLabel.setForeground(new Color(0, 150, 0)); // Green for win
-                    playResultSound("win");
-                    break;
-                case "Lose!":
-                    computerScore++;
-                    resultLabel.setForeground(Color.RED); // Red for lose
-                    playResultSound("lose");
-                    break;
-                case "Draw!":
-                    resultLabel.setForeground(Color.BLUE); // Blue for draw
-                    playResultSound("draw");
-                    break;
-            }
-            
-            // Add round result to history
-            gameHistory.add(new RoundResult(playerChoice, computerChoice, result));
-            
-            updateScoreLabel();
-            
-            roundsPlayed++;
-            
-            // Check if max rounds have been reached
-            if (playerScore > maxRounds/2 || computerScore > maxRounds/2 || roundsPlayed >= maxRounds) {
-                // Update total stats
-                totalGames++;
-                if (playerScore > computerScore) {
-                    totalWins++;
-                } else if (computerScore > playerScore) {
-                    totalLosses++;
-                } else {
-                    totalDraws++;
-                }
-                
-                // Update the leaderboard
-                gameStats.updatePlayerStats(playerName, totalGames, totalWins, totalLosses, totalDraws);
-                
-                // Game over - announce winner
-                String gameResult;
-                if (playerScore > computerScore) {
-                    gameResult = "Congratulations! You won the game!";
-                } else if (computerScore > playerScore) {
-                    gameResult = "Game over! Computer won the game!";
-                } else {
-                    gameResult = "Game ended in a draw!";
-                }
-                
-                // Play game over sound
-                playResultSound("gameover");
-                
-                JOptionPane.showMessageDialog(RPSGame.this, gameResult, "Game Over", JOptionPane.INFORMATION_MESSAGE);
-                
-                // Reset scores and rounds for new game
-                playerScore = 0;
-                computerScore = 0;
-                roundsPlayed = 0;
-                resetChoiceFrequencies();
-                updateScoreLabel();
-            }
-            
-            // Start a new timer for the next round
-            startNewRoundTimer();
         }
         
         /**
-         * Starts a new timer for the round, with 5 seconds limit.
+         * Starts the timer for the round, with 5 seconds limit.
          */
         private void startNewRoundTimer() {
-            // Create and start a 5-second timer for the next round
-            roundTimer = new Timer(5000, new ActionListener() {
-                @Override
-                public void actionPerformed(ActionEvent e) {
-                    // Timeout reached - auto-generate a random player choice
-                    Random random = new Random();
-                    Choice[] choices = Choice.values();
-                    Choice randomChoice = choices[random.nextInt(choices.length)];
-                    
-                    // Display timeout message
-                    playerChoiceLabel.setText("Your Choice: " + randomChoice.name() + " (Timeout)");
-                    Choice computerChoice = getComputerChoice();
-                    computerChoiceLabel.setText("Computer's Choice: " + computerChoice.name());
-                    
-                    String result = Choice.determineWinner(randomChoice, computerChoice);
-                    resultLabel.setText("Result: Timeout! " + (result.equals("Win!") ? "You win!" : "You lose!"));
-                    
-                    // Update score and result label color based on outcome
-                    if (result.equals("Win!")) {
-                        playerScore++;
-                        resultLabel.setForeground(new Color(0, 150, 0)); // Green for win
-                        playResultSound("win");
-                    } else if (result.equals("Lose!")) {
-                        computerScore++;
-                        resultLabel.setForeground(Color.RED); // Red for lose
-                        playResultSound("lose");
-                    } else {
-                        resultLabel.setForeground(Color.BLUE); // Blue for draw
-                        playResultSound("draw");
-                    }
-                    
-                    // Add round result to history
-                    gameHistory.add(new RoundResult(randomChoice, computerChoice, result.contains("win") ? "Win!" : result.contains("lose") ? "Lose!" : "Draw!"));
-                    
+            roundTimer.restart();
+        }
+    }
+    
+    /**
+     * Shows each round on the labels and announces the end of a game. Labels are only touched on the
+     * Event Dispatch Thread; rounds arriving faster than the EDT runs are coalesced into one update.
+     */
+    private class DisplayHandler implements RoundEventBus.Handler {
+        // Latest round packed into one int so the EDT always reads a consistent round
+        private volatile int latestRound;
+        private final AtomicBoolean updatePending = new AtomicBoolean();
+        private final Runnable applyLatestRound = () -> {
+            updatePending.set(false);
+            showRound(latestRound);
+        };
+        
+        @Override
+        public void onEvent(RoundEvent event, long sequence, boolean endOfBatch) {
+            int round = event.getPlayerChoice().ordinal()
+                | (event.isTimedOut() ? 1 : 0) << 2
+                | event.getComputerChoice().ordinal() << 3
+                | resultCode(event.getResult()) << 5
+                | event.getPlayerScore() << 7
+                | event.getComputerScore() << 15;
+            
+            if (event.isGameOver()) {
+                final int finalRound = round;
+                final String gameResult = gameResultMessage(event);
+                final boolean restartTimer = !event.isTimedOut();
+                SwingUtilities.invokeLater(() -> {
+                    showRound(finalRound);
+                    JOptionPane.showMessageDialog(RPSGame.this, gameResult, "Game Over", JOptionPane.INFORMATION_MESSAGE);
                     updateScoreLabel();
-                    
-                    roundsPlayed++;
-                    
-                    // Check if max rounds have been reached
-                    if (playerScore > maxRounds/2 || computerScore > maxRounds/2 || roundsPlayed >= maxRounds) {
-                        // Update total stats
-                        totalGames++;
-                        if (playerScore > computerScore) {
-                            totalWins++;
-                        } else if (computerScore > playerScore) {
-                            totalLosses++;
-                        } else {
-                            totalDraws++;
-                        }
-                        
-                        // Update the leaderboard
-                        gameStats.updatePlayerStats(playerName, totalGames, totalWins, totalLosses, totalDraws);
-                        
-                        // Game over - announce winner
-                        String gameResult;
-                        if (playerScore > computerScore) {
-                            gameResult = "Congratulations! You won the game!";
-                        } else if (computerScore > playerScore) {
-                            gameResult = "Game over! Computer won the game!";
-                        } else {
-                            gameResult = "Game ended in a draw!";
-                        }
-                        
-                        // Play game over sound
-                        playResultSound("gameover");
-                        
-                        JOptionPane.showMessageDialog(RPSGame.this, gameResult, "Game Over", JOptionPane.INFORMATION_MESSAGE);
-                        
-                        // Reset scores and rounds for new game
-                        playerScore = 0;
-                        computerScore = 0;
-                        roundsPlayed = 0;
-                        resetChoiceFrequencies();
-                        updateScoreLabel();
+                    setChoiceButtonsEnabled(true);
+                    if (restartTimer) {
+                        gameActionListener.startNewRoundTimer();
                     }
-                    
-                    // Stop and dispose of the timer
-                    ((Timer)e.getSource()).stop();
+                });
+            } else {
+                latestRound = round;
+                if (endOfBatch && updatePending.compareAndSet(false, true)) {
+                    SwingUtilities.invokeLater(applyLatestRound);
                 }
-            });
-            roundTimer.setRepeats(false); // Execute only once
-            roundTimer.start();
+            }
         }
         
         /**
-         * Resets the choice frequencies after a game ends.
+         * Updates the labels from a packed round. Must be called on the Event Dispatch Thread.
          */
-        private void resetChoiceFrequencies() {
-            for (int i = 0; i < playerChoiceFrequency.length; i++) {
-                playerChoiceFrequency[i] = 0;
-            }
-            previousComputerChoice = null;
+        private void showRound(int round) {
+            boolean timedOut = (round >> 2 & 1) == 1;
+            int result = round >> 5 & 3;
+            playerChoiceLabel.setText(PLAYER_CHOICE_TEXT[(round & 3) * 2 + (timedOut ? 1 : 0)]);
+            computerChoiceLabel.setText(COMPUTER_CHOICE_TEXT[round >> 3 & 3]);
             
-            // Clear the game history after a full game is completed
-            gameHistory.clear();
+            // Update result label and its color based on outcome
+            switch (result) {
+                case 1:
+                    resultLabel.setText(timedOut ? "Result: Timeout! You win!" : "Result: Win!");
+                    resultLabel.setForeground(WIN_COLOR);
+                    break;
+                case 2:
+                    resultLabel.setText(timedOut ? "Result: Timeout! You lose!" : "Result: Lose!");
+                    resultLabel.setForeground(LOSE_COLOR);
+                    break;
+                default:
+                    resultLabel.setText(timedOut ? "Result: Timeout! You lose!" : "Result: Draw!");
+                    resultLabel.setForeground(DRAW_COLOR);
+                    break;
+            }
+            scoreLabel.setText(scoreText[round >> 7 & 0xFF][round >> 15 & 0xFF]);
+        }
+        
+        private int resultCode(String result) {
+            switch (result) {
+                case "Win!": return 1;
+                case "Lose!": return 2;
+                default: return 0;
+            }
+        }
+        
+        /**
+         * Gets the game over announcement for the final round of a game.
+         */
+        private String gameResultMessage(RoundEvent event) {
+            if (event.getPlayerScore() > event.getComputerScore()) {
+                return "Congratulations! You won the game!";
+            } else if (event.getComputerScore() > event.getPlayerScore()) {
+                return "Game over! Computer won the game!";
+            } else {
+                return "Game ended in a draw!";
+            }
+        }
+    }
+    
+    /**
+     * Plays the button, result and game over sounds on the handler's own thread.
+     */
+    private class SoundHandler implements RoundEventBus.Handler {
+        @Override
+        public void onEvent(RoundEvent event, long sequence, boolean endOfBatch) {
+            if (!event.isTimedOut()) {
+                playButtonSound();
+            }
+            switch (event.getResult()) {
+                case "Win!":
+                    playResultSound("win");
+                    break;
+                case "Lose!":
+                    playResultSound("lose");
+                    break;
+                default:
+                    playResultSound("draw");
+                    break;
+            }
+            if (event.isGameOver()) {
+                playResultSound("gameover");
+            }
         }
     }
     
@@ -0,0 +1,259 @@
+package com.shyam;
+
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Game state of one player's session against the computer: scores, rounds, running totals and
+ * the computer's strategy. Each round is published to the {@link RoundEventBus}.
+ *
+ * HARD difficulty predicts the player from their {@link PlayerProfile}, which is loaded in the
+ * background and saved after every game. Until the saved profile arrives, the engine learns into
+ * a fresh one and merges it into the saved profile once that is loaded.
+ *
+ * The computer's move for the next round is computed on a background thread as soon as a round
+ * ends, while the player is still thinking, and committed before the player's move is known.
+ * Playing a round waits briefly for that move if it is not ready yet, then computes it itself.
+ * Whichever thread claims a round computes its move, so the engine's state is handed back and
+ * forth: the background thread only touches it between claiming and committing a move, and
+ * {@link #playRound} only after the move has been committed.
+ *
+ * Playing a round allocates nothing once warmed up; everything it needs is preallocated here
+ * or in the event ring. Not thread-safe: the game calls it from the Event Dispatch Thread only.
+ */
+class RoundEngine {
+    private static final Choice[] CHOICES = Choice.values();
+    // COUNTERS[c] beats c
+    private static final Choice[] COUNTERS = {Choice.PAPER, Choice.SCISSORS, Choice.ROCK};
+    // How long a round waits for the background thread before computing the move itself
+    private static final long MAX_MOVE_WAIT_NANOS = 1_000_000L;
+
+    private final String playerName;
+    private final int maxRounds;
+    private final Difficulty difficulty;
+    private final AdaptiveOpponent adaptiveOpponent;
+    private final RoundEventBus roundEvents;
+    private final PlayerProfileStore profileStore;
+    private final Random random = new Random();
+    private CompletableFuture<PlayerProfile> profileLoad;
+    private PlayerProfile profile = new PlayerProfile();
+
+    private final Thread precomputer;
+    // Rounds whose computer move has been requested, claimed and committed; the volatile writes hand over the state
+    private volatile long requestedRound;
+    private final AtomicLong claimedRound = new AtomicLong();
+    private volatile long committedRound;
+    private Choice committedChoice;
+    private long precomputeNanos;
+
+    private int playerScore = 0;
+    private int computerScore = 0;
+    private int roundsPlayed = 0;
+    private Choice previousComputerChoice = null;
+    private int totalGames = 0;
+    private int totalWins = 0;
+    private int totalLosses = 0;
+    private int totalDraws = 0;
+
+    public RoundEngine(String playerName, int maxRounds, Difficulty difficulty, AdaptiveOpponent adaptiveOpponent,
+                       PlayerProfileStore profileStore, RoundEventBus roundEvents) {
+        this.playerName = playerName;
+        this.maxRounds = maxRounds;
+        this.difficulty = difficulty;
+        this.adaptiveOpponent = adaptiveOpponent;
+        this.profileStore = profileStore;
+        this.roundEvents = roundEvents;
+        profileLoad = profileStore.load(playerName);
+        adoptLoadedProfile();
+
+        precomputer = new Thread(this::precompute, "round-engine-precompute");
+        precomputer.setDaemon(true);
+        precomputer.start();
+        requestComputerChoice();
+    }
+
+    /**
+     * Asks the background thread to commit the computer's move for the next round.
+     */
+    private void requestComputerChoice() {
+        requestedRound++;
+        LockSupport.unpark(precomputer);
+    }
+
+    /**
+     * Background loop: parks until a move is requested, then claims, computes and commits it.
+     */
+    private void precompute() {
+        while (!Thread.currentThread().isInterrupted()) {
+            long round = requestedRound;
+            if (round != committedRound && claimedRound.compareAndSet(round - 1, round)) {
+                commitComputerChoice(round);
+            } else {
+                LockSupport.park(this);
+            }
+        }
+    }
+
+    /**
+     * Computes and commits the computer's move for a round claimed by the calling thread.
+     */
+    private void commitComputerChoice(long round) {
+        long start = System.nanoTime();
+        adoptLoadedProfile();
+        committedChoice = getComputerChoice();
+        precomputeNanos = System.nanoTime() - start;
+        committedRound = round;
+    }
+
+    /**
+     * Switches to the saved profile once it has been loaded, keeping what was learned meanwhile.
+     */
+    private void adoptLoadedProfile() {
+        if (profileLoad != null && profileLoad.isDone()) {
+            PlayerProfile loaded = profileLoad.join().copy();
+            loaded.merge(profile);
+            profile = loaded;
+            profileLoad = null;
+        }
+    }
+
+    /**
+     * Plays one round against the computer, updates the scores and publishes the round.
+     * @param playerChoice The player's choice.
+     * @param timedOut Whether the choice was made for the player because the round timed out.
+     * @return Whether the round ended the game.
+     */
+    public boolean playRound(Choice playerChoice, boolean timedOut) {
+        // The move was usually committed while the player was thinking; otherwise wait briefly for it
+        long round = requestedRound;
+        long moveWaitNanos = 0;
+        boolean computedInline = false;
+        if (committedRound != round) {
+            long waitStart = System.nanoTime();
+            while (committedRound != round && System.nanoTime() - waitStart < MAX_MOVE_WAIT_NANOS) {
+                Thread.yield();
+            }
+            if (committedRound != round && claimedRound.compareAndSet(round - 1, round)) {
+                // The background thread has not started on it; compute the move here instead
+                commitComputerChoice(round);
+                computedInline = true;
+            }
+            // Otherwise the background thread is computing the move right now and commits it shortly
+            while (committedRound != round) {
+                Thread.yield();
+            }
+            moveWaitNanos = System.nanoTime() - waitStart;
+        }
+        Choice computerChoice = committedChoice;
+
+        if (!timedOut) {
+            // Learn the player's own choices after the computer has chosen; the profile drives HARD
+            profile.observe(playerChoice);
+            if (difficulty == Difficulty.ADAPTIVE) {
+                adaptiveOpponent.observe(playerChoice);
+            }
+        }
+        String result = Choice.determineWinner(playerChoice, computerChoice);
+
+        if (result.equals("Win!")) {
+            playerScore++;
+        } else if (result.equals("Lose!")) {
+            computerScore++;
+        }
+        roundsPlayed++;
+
+        RoundEvent event = roundEvents.next();
+        event.setRound(playerName, playerChoice, computerChoice, result, difficulty, timedOut,
+            playerScore, computerScore);
+        event.setMoveTimings(precomputeNanos, moveWaitNanos, computedInline);
+
+        // Check if max rounds have been reached
+        boolean gameOver = playerScore > maxRounds / 2 || computerScore > maxRounds / 2 || roundsPlayed >= maxRounds;
+        if (gameOver) {
+            // Update total stats
+            totalGames++;
+            if (playerScore > computerScore) {
+                totalWins++;
+            } else if (computerScore > playerScore) {
+                totalLosses++;
+            } else {
+                totalDraws++;
+            }
+            event.setGameOver(totalGames, totalWins, totalLosses, totalDraws);
+            profileStore.save(playerName, profile);
+
+            // Reset scores and rounds for new game; the profile carries over
+            playerScore = 0;
+            computerScore = 0;
+            roundsPlayed = 0;
+            previousComputerChoice = null;
+        }
+
+        requestComputerChoice();
+        roundEvents.publish();
+        return gameOver;
+    }
+
+    /**
+     * Picks a random choice, e.g. for a player who let the round time out.
+     */
+    public Choice randomChoice() {
+        return CHOICES[random.nextInt(CHOICES.length)];
+    }
+
+    /**
+     * Generates a choice for the computer based on the selected difficulty.
+     * @return The computer's selected Choice.
+     */
+    private Choice getComputerChoice() {
+        switch (difficulty) {
+            case MEDIUM:
+                // Avoid repeating the previous computer choice
+                Choice newChoice;
+                do {
+                    newChoice = randomChoice();
+                } while (previousComputerChoice != null && newChoice == previousComputerChoice);
+
+                previousComputerChoice = newChoice;
+                return newChoice;
+
+            case HARD:
+                // Predict the player's next choice from their profile and counter it
+                Choice predicted = profile.predictNext();
+                Choice counterChoice = COUNTERS[predicted == null ? 0 : predicted.ordinal()];
+                previousComputerChoice = counterChoice;
+                return counterChoice;
+
+            case ADAPTIVE:
+                // Mixed strategy trained in the background against this player's recorded moves
+                return adaptiveOpponent.nextChoice();
+
+            case EASY:
+            default:
+                // Random choices
+                return randomChoice();
+        }
+    }
+
+    /**
+     * Stops the background thread that precomputes the computer's moves.
+     */
+    public void close() throws InterruptedException {
+        precomputer.interrupt();
+        precomputer.join();
+    }
+
+    public int getPlayerScore() {
+        return playerScore;
+    }
+
+    public int getComputerScore() {
+        return computerScore;
+    }
+
+    public int getMaxRounds() {
+        return maxRounds;
+    }
+}
@@ -0,0 +1,154 @@
+package com.shyam;
+
+/**
+ * A round published through the {@link RoundEventBus}.
+ *
+ * Events are preallocated in the ring buffer and overwritten in place, so handlers must copy
+ * anything they want to keep beyond their {@code onEvent} call.
+ */
+class RoundEvent {
+    private String playerName;
+    private Choice playerChoice;
+    private Choice computerChoice;
+    private String result;
+    private Difficulty difficulty;
+    private boolean timedOut;
+    private long timestamp;
+    private long publishedAt;
+    private long precomputeNanos;
+    private long moveWaitNanos;
+    private boolean moveComputedInline;
+    private int playerScore;
+    private int computerScore;
+    private boolean gameOver;
+    private int totalGames;
+    private int totalWins;
+    private int totalLosses;
+    private int totalDraws;
+
+    /**
+     * Fills in the outcome of the round.
+     */
+    void setRound(String playerName, Choice playerChoice, Choice computerChoice, String result,
+                  Difficulty difficulty, boolean timedOut, int playerScore, int computerScore) {
+        this.playerName = playerName;
+        this.playerChoice = playerChoice;
+        this.computerChoice = computerChoice;
+        this.result = result;
+        this.difficulty = difficulty;
+        this.timedOut = timedOut;
+        this.playerScore = playerScore;
+        this.computerScore = computerScore;
+        this.timestamp = System.currentTimeMillis();
+        this.gameOver = false;
+    }
+
+    /**
+     * Marks the round as the last one of its game and records the player's updated totals.
+     */
+    void setGameOver(int totalGames, int totalWins, int totalLosses, int totalDraws) {
+        this.gameOver = true;
+        this.totalGames = totalGames;
+        this.totalWins = totalWins;
+        this.totalLosses = totalLosses;
+        this.totalDraws = totalDraws;
+    }
+
+    /**
+     * Records how long the computer's move took to compute, how long the round waited for it and
+     * whether the round computed it itself because the background thread had not started on it.
+     */
+    void setMoveTimings(long precomputeNanos, long moveWaitNanos, boolean moveComputedInline) {
+        this.precomputeNanos = precomputeNanos;
+        this.moveWaitNanos = moveWaitNanos;
+        this.moveComputedInline = moveComputedInline;
+    }
+
+    void setPublishedAt(long publishedAt) {
+        this.publishedAt = publishedAt;
+    }
+
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    public Choice getPlayerChoice() {
+        return playerChoice;
+    }
+
+    public Choice getComputerChoice() {
+        return computerChoice;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Gets the {@link System#nanoTime()} at which the event was published.
+     */
+    public long getPublishedAt() {
+        return publishedAt;
+    }
+
+    /**
+     * Gets how long computing the computer's move took, usually in the background before the player moved.
+     */
+    public long getPrecomputeNanos() {
+        return precomputeNanos;
+    }
+
+    /**
+     * Gets how long the round waited for the computer's move because it was not committed yet; zero if it was.
+     */
+    public long getMoveWaitNanos() {
+        return moveWaitNanos;
+    }
+
+    /**
+     * Gets whether the round computed the computer's move itself instead of using a precomputed one.
+     */
+    public boolean isMoveComputedInline() {
+        return moveComputedInline;
+    }
+
+    public int getPlayerScore() {
+        return playerScore;
+    }
+
+    public int getComputerScore() {
+        return computerScore;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public int getTotalGames() {
+        return totalGames;
+    }
+
+    public int getTotalWins() {
+        return totalWins;
+    }
+
+    public int getTotalLosses() {
+        return totalLosses;
+    }
+
+    public int getTotalDraws() {
+        return totalDraws;
+    }
+}
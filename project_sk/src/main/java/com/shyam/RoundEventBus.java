@@ -0,0 +1,180 @@
+package com.shyam;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Single-producer ring buffer that hands each round to independent consumers.
+ *
+ * Events are preallocated and reused. Every handler runs on its own daemon thread and
+ * tracks its own sequence, processing all events available since its last pass as one
+ * batch. The producer only waits if the slowest handler falls a whole ring behind, so a
+ * slow handler such as disk or sound never delays the round itself. Idle handlers spin briefly
+ * and then park until {@link #publish()} wakes them, so an idle game costs no CPU. {@link #close()}
+ * stops the handler threads once they have caught up.
+ */
+class RoundEventBus {
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final int SPIN_TRIES = 100;
+    private static final long PARK_NANOS = 200000;
+
+    private final RoundEvent[] ring;
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private volatile Consumer[] consumers = new Consumer[0];
+    private long nextSequence = 0;
+    private volatile boolean closed;
+
+    /**
+     * A handler thread and the last sequence it has processed.
+     */
+    private static class Consumer {
+        private final AtomicLong sequence;
+        private Thread thread;
+        // Set while the thread is parked or about to park, so the producer knows to wake it
+        private volatile boolean waiting;
+
+        Consumer(long sequence) {
+            this.sequence = new AtomicLong(sequence);
+        }
+    }
+
+    /**
+     * Processes events published on the bus.
+     */
+    interface Handler {
+        /**
+         * @param event The event; only valid for the duration of the call.
+         * @param sequence The sequence number of the event.
+         * @param endOfBatch Whether this is the last event currently available to the handler.
+         */
+        void onEvent(RoundEvent event, long sequence, boolean endOfBatch);
+    }
+
+    /**
+     * Creates a bus with the default capacity.
+     */
+    public RoundEventBus() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a bus whose ring holds the given number of events, rounded up to a power of two.
+     */
+    public RoundEventBus(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        ring = new RoundEvent[size];
+        for (int i = 0; i < size; i++) {
+            ring[i] = new RoundEvent();
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * Starts a handler on its own thread. It receives every event published from now on.
+     */
+    public synchronized void addHandler(String name, final Handler handler) {
+        final Consumer consumer = new Consumer(cursor.get());
+        consumer.thread = new Thread(() -> consume(handler, consumer), "round-event-" + name);
+        consumer.thread.setDaemon(true);
+        Consumer[] updated = Arrays.copyOf(consumers, consumers.length + 1);
+        updated[updated.length - 1] = consumer;
+        consumers = updated;
+        consumer.thread.start();
+    }
+
+    /**
+     * Claims the next event for the producer to fill, waiting only if the ring is full.
+     * Must be followed by {@link #publish()}.
+     */
+    public RoundEvent next() {
+        long wrapPoint = nextSequence - ring.length;
+        while (wrapPoint > minimumGatingSequence()) {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+        return ring[(int) (nextSequence & mask)];
+    }
+
+    /**
+     * Makes the event claimed by {@link #next()} visible to the handlers and wakes the parked ones.
+     */
+    public void publish() {
+        ring[(int) (nextSequence & mask)].setPublishedAt(System.nanoTime());
+        cursor.set(nextSequence++);
+        for (Consumer consumer : consumers) {
+            if (consumer.waiting) {
+                LockSupport.unpark(consumer.thread);
+            }
+        }
+    }
+
+    /**
+     * Gets whether every handler has processed every published event.
+     */
+    public boolean isDrained() {
+        return minimumGatingSequence() >= cursor.get();
+    }
+
+    /**
+     * Stops the handler threads once they have processed every published event, and waits for them.
+     * Nothing may be published afterwards.
+     */
+    public void close() throws InterruptedException {
+        closed = true;
+        for (Consumer consumer : consumers) {
+            LockSupport.unpark(consumer.thread);
+        }
+        for (Consumer consumer : consumers) {
+            consumer.thread.join();
+        }
+    }
+
+    private long minimumGatingSequence() {
+        long minimum = Long.MAX_VALUE;
+        for (Consumer consumer : consumers) {
+            minimum = Math.min(minimum, consumer.sequence.get());
+        }
+        return minimum;
+    }
+
+    /**
+     * Handler loop: waits for new events, then hands over everything available as one batch.
+     */
+    private void consume(Handler handler, Consumer consumer) {
+        AtomicLong sequence = consumer.sequence;
+        long next = sequence.get() + 1;
+        int idle = 0;
+        while (true) {
+            long available = cursor.get();
+            if (available < next) {
+                // The cursor is read again since the last publish may have come just before close()
+                if (closed && cursor.get() < next) {
+                    return;
+                }
+                if (++idle < SPIN_TRIES) {
+                    Thread.yield();
+                } else {
+                    // Announce the park before checking the cursor again; publish() sets the cursor
+                    // before checking the flag, so one of the two always sees the other
+                    consumer.waiting = true;
+                    if (cursor.get() < next) {
+                        LockSupport.park(this);
+                    }
+                    consumer.waiting = false;
+                }
+                continue;
+            }
+            idle = 0;
+            for (long s = next; s <= available; s++) {
+                try {
+                    handler.onEvent(ring[(int) (s & mask)], s, s == available);
+                } catch (RuntimeException e) {
+                    System.err.println("Error handling round event: " + e.getMessage());
+                }
+            }
+            sequence.set(available);
+            next = available + 1;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.shyam;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Round event handler that keeps the rounds of the current game and appends every round to the
+ * persistent {@link RoundLog}. Rounds are stored in preallocated arrays, so recording one allocates
+ * nothing; {@link RoundResult} objects are only created when the history is displayed.
+ */
+class RoundHistory implements RoundEventBus.Handler {
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private final RoundLog roundLog;
+    private final Choice[] playerChoices;
+    private final Choice[] computerChoices;
+    private final String[] results;
+    private final long[] timestamps;
+    private int rounds;
+
+    /**
+     * Creates a history that remembers the last ten rounds of the current game.
+     * @param roundLog The log to append rounds to, or null to keep them in memory only.
+     */
+    public RoundHistory(RoundLog roundLog) {
+        this(roundLog, DEFAULT_CAPACITY);
+    }
+
+    public RoundHistory(RoundLog roundLog, int capacity) {
+        this.roundLog = roundLog;
+        playerChoices = new Choice[capacity];
+        computerChoices = new Choice[capacity];
+        results = new String[capacity];
+        timestamps = new long[capacity];
+    }
+
+    @Override
+    public void onEvent(RoundEvent event, long sequence, boolean endOfBatch) {
+        synchronized (this) {
+            int slot = rounds++ % playerChoices.length;
+            playerChoices[slot] = event.getPlayerChoice();
+            computerChoices[slot] = event.getComputerChoice();
+            results[slot] = event.getResult();
+            timestamps[slot] = event.getTimestamp();
+        }
+        if (roundLog != null) {
+            roundLog.append(event.getPlayerName(), event.getTimestamp(), event.getPlayerChoice(),
+                event.getComputerChoice(), event.getResult(), event.getDifficulty(), event.isTimedOut());
+        }
+
+        if (event.isGameOver()) {
+            // Clear the game history after a full game is completed
+            clear();
+        }
+    }
+
+    /**
+     * Gets the number of rounds played in the current game.
+     */
+    public synchronized int getRoundCount() {
+        return rounds;
+    }
+
+    /**
+     * Gets the remembered rounds of the current game, oldest first.
+     */
+    public synchronized List<RoundResult> getRecentRounds() {
+        int count = Math.min(rounds, playerChoices.length);
+        List<RoundResult> recent = new ArrayList<>(count);
+        for (int i = rounds - count; i < rounds; i++) {
+            int slot = i % playerChoices.length;
+            recent.add(new RoundResult(playerChoices[slot], computerChoices[slot], results[slot], timestamps[slot]));
+        }
+        return recent;
+    }
+
+    private synchronized void clear() {
+        rounds = 0;
+    }
+}
@@ -0,0 +1,490 @@
+package com.shyam;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable, per-player log of every round played, stored in a compact columnar format.
+ *
+ * Rounds are buffered per player and written as blocks. Each block stores its columns
+ * separately: varint delta-encoded timestamps, 2-bit player and computer moves, 2-bit
+ * outcome codes, a small difficulty dictionary and 1-bit timed-out flags. A separate index file records the
+ * player, time range and file offset of every block so that range scans only read the
+ * blocks they need.
+ *
+ * A block is written once it is full, or by a background thread once its first round is a
+ * minute old, so a crash loses at most about the last minute of rounds.
+ */
+class RoundLog {
+    private static final String ROUND_DATA_FILE = "rounds.dat";
+    private static final String ROUND_INDEX_FILE = "rounds.idx";
+    private static final int BLOCK_ROUNDS = 4096;
+    private static final long FLUSH_INTERVAL_MILLIS = 60000;
+
+    private static final int OUTCOME_DRAW = 0;
+    private static final int OUTCOME_WIN = 1;
+    private static final int OUTCOME_LOSE = 2;
+
+    private final String dataFile;
+    private final String indexFile;
+    private final Map<String, List<BlockInfo>> blockIndex = new HashMap<>();
+    private final Map<String, PendingBlock> pending = new HashMap<>();
+
+    // Encoding buffers reused for every block
+    private final ByteArrayOutputStream blockBuffer = new ByteArrayOutputStream(BLOCK_ROUNDS * 3);
+    private final byte[] difficultyCodes = new byte[BLOCK_ROUNDS];
+    private final ByteArrayOutputStream indexBuffer = new ByteArrayOutputStream(64);
+    private final DataOutputStream indexOut = new DataOutputStream(indexBuffer);
+    private final long flushIntervalMillis;
+    private final ScheduledExecutorService flusher;
+
+    /**
+     * Receives the rounds found by {@link #scan}.
+     */
+    interface RoundVisitor {
+        void visit(long timestamp, Choice playerChoice, Choice computerChoice, String result, Difficulty difficulty,
+                   boolean timedOut);
+    }
+
+    /**
+     * Location and time range of one block on disk.
+     */
+    private static class BlockInfo {
+        private final long minTimestamp;
+        private final long maxTimestamp;
+        private final long offset;
+        private final int length;
+
+        BlockInfo(long minTimestamp, long maxTimestamp, long offset, int length) {
+            this.minTimestamp = minTimestamp;
+            this.maxTimestamp = maxTimestamp;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Rounds of one player that have not been written yet. The arrays are reused after each flush.
+     */
+    private static class PendingBlock {
+        private final long[] timestamps = new long[BLOCK_ROUNDS];
+        private final byte[] playerMoves = new byte[BLOCK_ROUNDS];
+        private final byte[] computerMoves = new byte[BLOCK_ROUNDS];
+        private final byte[] outcomes = new byte[BLOCK_ROUNDS];
+        private final byte[] difficulties = new byte[BLOCK_ROUNDS];
+        private final byte[] timedOut = new byte[BLOCK_ROUNDS];
+        private int timedOutCount;
+        private int size;
+        // When the first round of the block was appended, for the time-based flush
+        private long openedAt;
+    }
+
+    /**
+     * Opens the round log in the working directory.
+     */
+    public RoundLog() {
+        this(ROUND_DATA_FILE, ROUND_INDEX_FILE);
+    }
+
+    /**
+     * Opens the round log stored in the given data and index files.
+     */
+    public RoundLog(String dataFile, String indexFile) {
+        this(dataFile, indexFile, FLUSH_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Opens the round log stored in the given files, writing partial blocks once their first round is
+     * the given number of milliseconds old.
+     */
+    RoundLog(String dataFile, String indexFile, long flushIntervalMillis) {
+        this.dataFile = dataFile;
+        this.indexFile = indexFile;
+        this.flushIntervalMillis = flushIntervalMillis;
+        loadIndex();
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "round-log-flush");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::flushOlderThanInterval, flushIntervalMillis, flushIntervalMillis,
+            TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Loads the block index, ignoring entries that point past the end of the data file.
+     */
+    private void loadIndex() {
+        long dataLength = new File(dataFile).length();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            while (true) {
+                String name;
+                try {
+                    name = in.readUTF();
+                } catch (EOFException e) {
+                    break;
+                }
+                long minTimestamp = in.readLong();
+                long maxTimestamp = in.readLong();
+                long offset = in.readLong();
+                int length = in.readInt();
+                if (offset + length <= dataLength) {
+                    blocksFor(name).add(new BlockInfo(minTimestamp, maxTimestamp, offset, length));
+                }
+            }
+        } catch (IOException e) {
+            // Missing or truncated index: keep whatever blocks were read so far
+        }
+    }
+
+    private List<BlockInfo> blocksFor(String name) {
+        List<BlockInfo> blocks = blockIndex.get(name);
+        if (blocks == null) {
+            blocks = new ArrayList<>();
+            blockIndex.put(name, blocks);
+        }
+        return blocks;
+    }
+
+    /**
+     * Appends a round for the given player. The block is written once it is full, once its first round
+     * is a minute old, or on {@link #close()}, so a player's rounds fill large blocks across games.
+     * @param timedOut Whether the player's move was chosen at random because the round timed out.
+     */
+    public synchronized void append(String name, long timestamp, Choice playerChoice, Choice computerChoice,
+                                    String result, Difficulty difficulty, boolean timedOut) {
+        PendingBlock block = pending.get(name);
+        if (block == null) {
+            block = new PendingBlock();
+            pending.put(name, block);
+        }
+        if (block.size == BLOCK_ROUNDS) {
+            // Still full because the last write failed; retry it, and drop the rounds if it fails again
+            writeBlock(name, block);
+            if (block.size == BLOCK_ROUNDS) {
+                System.err.println("Dropping " + BLOCK_ROUNDS + " unsaved rounds of " + name);
+                block.size = 0;
+                block.timedOutCount = 0;
+            }
+        }
+        if (block.size == 0) {
+            block.openedAt = System.currentTimeMillis();
+        }
+        int i = block.size++;
+        block.timestamps[i] = timestamp;
+        block.playerMoves[i] = (byte) playerChoice.ordinal();
+        block.computerMoves[i] = (byte) computerChoice.ordinal();
+        block.outcomes[i] = (byte) outcomeCode(result);
+        block.difficulties[i] = (byte) difficulty.ordinal();
+        block.timedOut[i] = (byte) (timedOut ? 1 : 0);
+        if (timedOut) {
+            block.timedOutCount++;
+        }
+
+        if (block.size == BLOCK_ROUNDS) {
+            writeBlock(name, block);
+        }
+    }
+
+    /**
+     * Writes all buffered rounds to disk and stops the background flush, e.g. when the game exits.
+     * Rounds appended afterwards are only written once their block is full or on another close.
+     */
+    public synchronized void close() {
+        flusher.shutdown();
+        flushOpenedBefore(Long.MAX_VALUE);
+    }
+
+    private synchronized void flushOlderThanInterval() {
+        flushOpenedBefore(System.currentTimeMillis() - flushIntervalMillis + 1);
+    }
+
+    /**
+     * Writes the pending blocks whose first round was appended before the given time.
+     */
+    private void flushOpenedBefore(long time) {
+        for (Map.Entry<String, PendingBlock> entry : pending.entrySet()) {
+            PendingBlock block = entry.getValue();
+            if (block.size > 0 && block.openedAt < time) {
+                writeBlock(entry.getKey(), block);
+            }
+        }
+    }
+
+    /**
+     * Visits every round of the player with a timestamp in [fromTimestamp, toTimestamp], oldest block first.
+     * @return The number of rounds visited.
+     */
+    public synchronized int scan(String name, long fromTimestamp, long toTimestamp, RoundVisitor visitor) {
+        int visited = 0;
+        List<BlockInfo> blocks = blockIndex.get(name);
+        if (blocks != null && !blocks.isEmpty()) {
+            try (RandomAccessFile file = new RandomAccessFile(dataFile, "r")) {
+                for (BlockInfo info : blocks) {
+                    if (info.maxTimestamp < fromTimestamp || info.minTimestamp > toTimestamp) {
+                        continue;
+                    }
+                    byte[] data = new byte[info.length];
+                    file.seek(info.offset);
+                    file.readFully(data);
+                    visited += decodeBlock(data, fromTimestamp, toTimestamp, visitor);
+                }
+            } catch (IOException e) {
+                System.err.println("Error reading round log: " + e.getMessage());
+            }
+        }
+
+        PendingBlock block = pending.get(name);
+        if (block != null) {
+            for (int i = 0; i < block.size; i++) {
+                long timestamp = block.timestamps[i];
+                if (timestamp >= fromTimestamp && timestamp <= toTimestamp) {
+                    visitor.visit(timestamp, Choice.values()[block.playerMoves[i]],
+                        Choice.values()[block.computerMoves[i]], outcomeResult(block.outcomes[i]),
+                        Difficulty.values()[block.difficulties[i]], block.timedOut[i] != 0);
+                    visited++;
+                }
+            }
+        }
+        return visited;
+    }
+
+    /**
+     * Encodes the pending rounds of a player, appends them to the data file and records them in the index.
+     * If the index cannot be written, the data write is rolled back and the rounds stay pending, so they are
+     * never written twice.
+     */
+    private void writeBlock(String name, PendingBlock block) {
+        int size = block.size;
+        long minTimestamp = Long.MAX_VALUE;
+        long maxTimestamp = Long.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            minTimestamp = Math.min(minTimestamp, block.timestamps[i]);
+            maxTimestamp = Math.max(maxTimestamp, block.timestamps[i]);
+        }
+        encodeBlock(block);
+        int length = blockBuffer.size();
+
+        File data = new File(dataFile);
+        long offset = data.length();
+        long indexLength = new File(indexFile).length();
+        try (FileOutputStream out = new FileOutputStream(data, true)) {
+            blockBuffer.writeTo(out);
+        } catch (IOException e) {
+            System.err.println("Error saving round log: " + e.getMessage());
+            return;
+        }
+        try (FileOutputStream out = new FileOutputStream(indexFile, true)) {
+            indexBuffer.reset();
+            indexOut.writeUTF(name);
+            indexOut.writeLong(minTimestamp);
+            indexOut.writeLong(maxTimestamp);
+            indexOut.writeLong(offset);
+            indexOut.writeInt(length);
+            indexBuffer.writeTo(out);
+        } catch (IOException e) {
+            System.err.println("Error saving round log index: " + e.getMessage());
+            boolean indexChanged = new File(indexFile).length() != indexLength;
+            if (!truncate(dataFile, offset) || (indexChanged && !truncate(indexFile, indexLength))) {
+                // The block may be on disk already; drop it rather than risk writing it twice
+                block.size = 0;
+                block.timedOutCount = 0;
+            }
+            return;
+        }
+        blocksFor(name).add(new BlockInfo(minTimestamp, maxTimestamp, offset, length));
+        block.size = 0;
+        block.timedOutCount = 0;
+    }
+
+    /**
+     * Cuts a file back to the given length.
+     * @return Whether the file now has that length.
+     */
+    private static boolean truncate(String path, long length) {
+        try (RandomAccessFile file = new RandomAccessFile(path, "rw")) {
+            file.setLength(length);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error rolling back round log: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Block layout: round count, first timestamp, zig-zag varint timestamp deltas, packed player moves,
+     * packed computer moves, packed outcomes, difficulty dictionary, packed dictionary codes, and the number
+     * of timed-out rounds followed by packed timed-out flags if there are any. Blocks written before the
+     * flags were added end after the dictionary codes and are read as having no timed-out rounds.
+     */
+    private void encodeBlock(PendingBlock block) {
+        int size = block.size;
+        ByteArrayOutputStream out = blockBuffer;
+        out.reset();
+        writeVarLong(out, size);
+        writeVarLong(out, block.timestamps[0]);
+        for (int i = 1; i < size; i++) {
+            writeVarLong(out, zigZag(block.timestamps[i] - block.timestamps[i - 1]));
+        }
+        writePacked(out, block.playerMoves, size, 2);
+        writePacked(out, block.computerMoves, size, 2);
+        writePacked(out, block.outcomes, size, 2);
+
+        // Difficulty dictionary: usually a single entry, in which case the codes take no space at all
+        byte[] dictionary = new byte[Difficulty.values().length];
+        int[] codeOf = new int[Difficulty.values().length];
+        Arrays.fill(codeOf, -1);
+        int dictionarySize = 0;
+        byte[] codes = difficultyCodes;
+        for (int i = 0; i < size; i++) {
+            int ordinal = block.difficulties[i];
+            if (codeOf[ordinal] < 0) {
+                codeOf[ordinal] = dictionarySize;
+                dictionary[dictionarySize++] = (byte) ordinal;
+            }
+            codes[i] = (byte) codeOf[ordinal];
+        }
+        out.write(dictionarySize);
+        out.write(dictionary, 0, dictionarySize);
+        writePacked(out, codes, size, bitsFor(dictionarySize));
+
+        writeVarLong(out, block.timedOutCount);
+        if (block.timedOutCount > 0) {
+            writePacked(out, block.timedOut, size, 1);
+        }
+    }
+
+    /**
+     * Decodes a block and visits the rounds that fall inside the time range.
+     */
+    private static int decodeBlock(byte[] data, long fromTimestamp, long toTimestamp, RoundVisitor visitor) {
+        int[] pos = {0};
+        int size = (int) readVarLong(data, pos);
+        long[] timestamps = new long[size];
+        timestamps[0] = readVarLong(data, pos);
+        for (int i = 1; i < size; i++) {
+            timestamps[i] = timestamps[i - 1] + unZigZag(readVarLong(data, pos));
+        }
+        int playerStart = pos[0];
+        int computerStart = playerStart + packedLength(size, 2);
+        int outcomeStart = computerStart + packedLength(size, 2);
+        int dictionaryStart = outcomeStart + packedLength(size, 2);
+        int dictionarySize = data[dictionaryStart];
+        int codeStart = dictionaryStart + 1 + dictionarySize;
+        int codeBits = bitsFor(dictionarySize);
+        pos[0] = codeStart + packedLength(size, codeBits);
+        int timedOutStart = -1;
+        if (pos[0] < data.length && readVarLong(data, pos) > 0) {
+            timedOutStart = pos[0];
+        }
+
+        Choice[] choices = Choice.values();
+        Difficulty[] difficulties = Difficulty.values();
+        int visited = 0;
+        for (int i = 0; i < size; i++) {
+            if (timestamps[i] < fromTimestamp || timestamps[i] > toTimestamp) {
+                continue;
+            }
+            int code = readPacked(data, codeStart, i, codeBits);
+            visitor.visit(
+                timestamps[i],
+                choices[readPacked(data, playerStart, i, 2)],
+                choices[readPacked(data, computerStart, i, 2)],
+                outcomeResult(readPacked(data, outcomeStart, i, 2)),
+                difficulties[data[dictionaryStart + 1 + code]],
+                timedOutStart >= 0 && readPacked(data, timedOutStart, i, 1) != 0
+            );
+            visited++;
+        }
+        return visited;
+    }
+
+    private static int outcomeCode(String result) {
+        switch (result) {
+            case "Win!": return OUTCOME_WIN;
+            case "Lose!": return OUTCOME_LOSE;
+            default: return OUTCOME_DRAW;
+        }
+    }
+
+    private static String outcomeResult(int code) {
+        switch (code) {
+            case OUTCOME_WIN: return "Win!";
+            case OUTCOME_LOSE: return "Lose!";
+            default: return "Draw!";
+        }
+    }
+
+    private static int bitsFor(int dictionarySize) {
+        return dictionarySize <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(dictionarySize - 1);
+    }
+
+    private static int packedLength(int count, int bits) {
+        return (count * bits + 7) / 8;
+    }
+
+    private static void writePacked(ByteArrayOutputStream out, byte[] values, int count, int bits) {
+        if (bits == 0) {
+            return;
+        }
+        int current = 0;
+        int filled = 0;
+        for (int i = 0; i < count; i++) {
+            current |= (values[i] & 0xFF) << filled;
+            filled += bits;
+            // Widths that do not divide 8 carry their leftover bits into the next byte
+            while (filled >= 8) {
+                out.write(current & 0xFF);
+                current >>>= 8;
+                filled -= 8;
+            }
+        }
+        if (filled > 0) {
+            out.write(current);
+        }
+    }
+
+    private static int readPacked(byte[] data, int start, int index, int bits) {
+        if (bits == 0) {
+            return 0;
+        }
+        int bit = index * bits;
+        int position = start + (bit >>> 3);
+        int value = data[position] & 0xFF;
+        if ((bit & 7) + bits > 8) {
+            value |= (data[position + 1] & 0xFF) << 8;
+        }
+        return (value >>> (bit & 7)) & ((1 << bits) - 1);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(byte[] data, int[] pos) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[pos[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
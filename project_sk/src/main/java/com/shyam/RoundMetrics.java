@@ -0,0 +1,129 @@
+package com.shyam;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Round event handler that counts rounds and measures how long events wait before being handled,
+ * how long the computer's moves took to precompute, and how often rounds found them ready, waited for
+ * them or computed them themselves.
+ */
+class RoundMetrics implements RoundEventBus.Handler {
+    private final AtomicLong rounds = new AtomicLong();
+    private final AtomicLong games = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong totalDispatchNanos = new AtomicLong();
+    private final AtomicLong maxDispatchNanos = new AtomicLong();
+    private final AtomicLong totalPrecomputeNanos = new AtomicLong();
+    private final AtomicLong maxPrecomputeNanos = new AtomicLong();
+    private final AtomicLong totalMoveWaitNanos = new AtomicLong();
+    private final AtomicLong maxMoveWaitNanos = new AtomicLong();
+    private final AtomicLong movesReady = new AtomicLong();
+    private final AtomicLong movesWaited = new AtomicLong();
+    private final AtomicLong movesInline = new AtomicLong();
+
+    @Override
+    public void onEvent(RoundEvent event, long sequence, boolean endOfBatch) {
+        long dispatch = System.nanoTime() - event.getPublishedAt();
+        rounds.incrementAndGet();
+        totalDispatchNanos.addAndGet(dispatch);
+        maxDispatchNanos.accumulateAndGet(dispatch, Math::max);
+        totalPrecomputeNanos.addAndGet(event.getPrecomputeNanos());
+        maxPrecomputeNanos.accumulateAndGet(event.getPrecomputeNanos(), Math::max);
+        totalMoveWaitNanos.addAndGet(event.getMoveWaitNanos());
+        maxMoveWaitNanos.accumulateAndGet(event.getMoveWaitNanos(), Math::max);
+        if (event.isMoveComputedInline()) {
+            movesInline.incrementAndGet();
+        } else if (event.getMoveWaitNanos() > 0) {
+            movesWaited.incrementAndGet();
+        } else {
+            movesReady.incrementAndGet();
+        }
+        if (event.isGameOver()) {
+            games.incrementAndGet();
+        }
+        if (endOfBatch) {
+            batches.incrementAndGet();
+        }
+    }
+
+    public long getRounds() {
+        return rounds.get();
+    }
+
+    public long getGames() {
+        return games.get();
+    }
+
+    public long getBatches() {
+        return batches.get();
+    }
+
+    /**
+     * Gets the mean time from publishing a round to this handler seeing it, in nanoseconds.
+     */
+    public double getMeanDispatchNanos() {
+        long count = rounds.get();
+        return count == 0 ? 0.0 : (double) totalDispatchNanos.get() / count;
+    }
+
+    public long getMaxDispatchNanos() {
+        return maxDispatchNanos.get();
+    }
+
+    /**
+     * Gets the mean time taken to precompute the computer's move, off the round's critical path, in nanoseconds.
+     */
+    public double getMeanPrecomputeNanos() {
+        long count = rounds.get();
+        return count == 0 ? 0.0 : (double) totalPrecomputeNanos.get() / count;
+    }
+
+    public long getMaxPrecomputeNanos() {
+        return maxPrecomputeNanos.get();
+    }
+
+    /**
+     * Gets the mean time a round waited for its precomputed move, in nanoseconds; zero when the
+     * move was always ready before the player chose.
+     */
+    public double getMeanMoveWaitNanos() {
+        long count = rounds.get();
+        return count == 0 ? 0.0 : (double) totalMoveWaitNanos.get() / count;
+    }
+
+    public long getMaxMoveWaitNanos() {
+        return maxMoveWaitNanos.get();
+    }
+
+    /**
+     * Gets how many rounds found the precomputed move already committed.
+     */
+    public long getMovesReady() {
+        return movesReady.get();
+    }
+
+    /**
+     * Gets how many rounds waited for the background thread to commit their move.
+     */
+    public long getMovesWaited() {
+        return movesWaited.get();
+    }
+
+    /**
+     * Gets how many rounds gave up waiting and computed the computer's move themselves.
+     */
+    public long getMovesInline() {
+        return movesInline.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Rounds: %d, Games: %d, Batches: %d, Dispatch mean: %.1f us, max: %.1f us, "
+                + "Precompute mean: %.1f us, max: %.1f us, Move wait mean: %.1f us, max: %.1f us, "
+                + "Moves ready: %d, waited: %d, inline: %d",
+            getRounds(), getGames(), getBatches(), getMeanDispatchNanos() / 1000, getMaxDispatchNanos() / 1000.0,
+            getMeanPrecomputeNanos() / 1000, getMaxPrecomputeNanos() / 1000.0,
+            getMeanMoveWaitNanos() / 1000, getMaxMoveWaitNanos() / 1000.0,
+            getMovesReady(), getMovesWaited(), getMovesInline());
+    }
+}
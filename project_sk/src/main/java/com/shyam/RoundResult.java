@@ -0,0 +1,49 @@
+package com.shyam;
+
+/**
+ * Represents the result of a single round in the game.
+ */
+class RoundResult {
+    private Choice playerChoice;
+    private Choice computerChoice;
+    private String result;
+    private long timestamp;
+    
+    public RoundResult(Choice playerChoice, Choice computerChoice, String result) {
+        this(playerChoice, computerChoice, result, System.currentTimeMillis());
+    }
+    
+    public RoundResult(Choice playerChoice, Choice computerChoice, String result, long timestamp) {
+        this.playerChoice = playerChoice;
+        this.computerChoice = computerChoice;
+        this.result = result;
+        this.timestamp = timestamp;
+    }
+    
+    public Choice getPlayerChoice() {
+        return playerChoice;
+    }
+    
+    public Choice getComputerChoice() {
+        return computerChoice;
+    }
+    
+    public String getResult() {
+        return result;
+    }
+    
+    public long getTimestamp() {
+        return timestamp;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format(
+            "[%s] You: %s, Computer: %s, Result: %s",
+            new java.util.Date(timestamp),
+            playerChoice,
+            computerChoice,
+            result
+        );
+    }
+}
@@ -0,0 +1,162 @@
+package com.shyam;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures global top-K and rank query latency and single-player update latency of {@link ShardedStats}
+ * as the shard count grows.
+ * Each shard is started as its own JVM running {@link StatsShardServer} on loopback.
+ *
+ * Usage: {@code ShardBenchmark [players] [queries] [shardCounts...]}, e.g. {@code ShardBenchmark 100000 2000 1 2 4 8}
+ */
+class ShardBenchmark {
+    private static final int DEFAULT_PLAYERS = 100000;
+    private static final int DEFAULT_QUERIES = 2000;
+    private static final int[] DEFAULT_SHARD_COUNTS = {1, 2, 4, 8};
+    private static final int TOP_K = 10;
+
+    public static void main(String[] args) throws IOException {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PLAYERS;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_QUERIES;
+        int[] shardCounts = DEFAULT_SHARD_COUNTS;
+        if (args.length > 2) {
+            shardCounts = new int[args.length - 2];
+            for (int i = 2; i < args.length; i++) {
+                shardCounts[i - 2] = Integer.parseInt(args[i]);
+            }
+        }
+
+        List<GameStats.PlayerStats> population = new ArrayList<>(players);
+        Random random = new Random(42);
+        for (int i = 0; i < players; i++) {
+            int games = 1 + random.nextInt(200);
+            int wins = random.nextInt(games + 1);
+            int losses = random.nextInt(games - wins + 1);
+            population.add(new GameStats.PlayerStats("player" + i, games, wins, losses, games - wins - losses));
+        }
+
+        System.out.printf("%d players, %d queries per type, top-%d%n", players, queries, TOP_K);
+        System.out.printf("%-7s %-14s %-14s %-14s %-14s %-14s %-14s%n", "shards", "top-K mean", "top-K p99",
+            "rank mean", "rank p99", "update mean", "update p99");
+        for (int shardCount : shardCounts) {
+            run(shardCount, population, queries, random);
+        }
+    }
+
+    private static void run(int shardCount, List<GameStats.PlayerStats> population, int queries, Random random)
+            throws IOException {
+        List<Process> processes = new ArrayList<>();
+        List<File> directories = new ArrayList<>();
+        try {
+            List<InetSocketAddress> addresses = new ArrayList<>();
+            for (int i = 0; i < shardCount; i++) {
+                File directory = Files.createTempDirectory("stats-shard").toFile();
+                directories.add(directory);
+                Process process = startShard(directory);
+                processes.add(process);
+                addresses.add(new InetSocketAddress("127.0.0.1", awaitReady(process)));
+            }
+
+            try (ShardedStats stats = new ShardedStats(addresses)) {
+                stats.updateAllPlayerStats(population);
+
+                // Warm up both paths before measuring
+                for (int i = 0; i < queries / 4; i++) {
+                    stats.getTopPlayers(TOP_K);
+                    stats.getRank(population.get(random.nextInt(population.size())).getName());
+                }
+
+                long[] topLatencies = new long[queries];
+                long[] rankLatencies = new long[queries];
+                long[] updateLatencies = new long[queries];
+                for (int i = 0; i < queries; i++) {
+                    long start = System.nanoTime();
+                    stats.getTopPlayers(TOP_K);
+                    topLatencies[i] = System.nanoTime() - start;
+
+                    String name = population.get(random.nextInt(population.size())).getName();
+                    start = System.nanoTime();
+                    stats.getRank(name);
+                    rankLatencies[i] = System.nanoTime() - start;
+
+                    // One more game won, which moves the player up the shard's leaderboard
+                    GameStats.PlayerStats player = population.get(random.nextInt(population.size()));
+                    start = System.nanoTime();
+                    stats.updatePlayerStats(player.getName(), player.getTotalGames() + 1, player.getWins() + 1,
+                        player.getLosses(), player.getDraws());
+                    updateLatencies[i] = System.nanoTime() - start;
+                }
+                System.out.printf("%-7d %-14s %-14s %-14s %-14s %-14s %-14s%n", shardCount,
+                    micros(mean(topLatencies)), micros(percentile(topLatencies, 0.99)),
+                    micros(mean(rankLatencies)), micros(percentile(rankLatencies, 0.99)),
+                    micros(mean(updateLatencies)), micros(percentile(updateLatencies, 0.99)));
+            }
+        } finally {
+            for (Process process : processes) {
+                process.destroy();
+            }
+            // Let each shard finish its final save before its directory is removed
+            for (Process process : processes) {
+                try {
+                    process.waitFor();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            for (File directory : directories) {
+                File[] files = directory.listFiles();
+                if (files != null) {
+                    for (File file : files) {
+                        file.delete();
+                    }
+                }
+                directory.delete();
+            }
+        }
+    }
+
+    private static Process startShard(File directory) throws IOException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        return new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+            StatsShardServer.class.getName(), "0", directory.getPath())
+            .redirectError(ProcessBuilder.Redirect.INHERIT)
+            .start();
+    }
+
+    /**
+     * Waits for the shard's READY line and returns the port it listens on.
+     */
+    private static int awaitReady(Process process) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        String line = reader.readLine();
+        if (line == null || !line.startsWith("READY ")) {
+            throw new IOException("Shard failed to start: " + line);
+        }
+        return Integer.parseInt(line.substring("READY ".length()).trim());
+    }
+
+    private static double mean(long[] values) {
+        long total = 0;
+        for (long value : values) {
+            total += value;
+        }
+        return (double) total / values.length;
+    }
+
+    private static double percentile(long[] values, double p) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.min(sorted.length - 1, Math.floor(p * sorted.length))];
+    }
+
+    private static String micros(double nanos) {
+        return String.format("%.1f us", nanos / 1000);
+    }
+}
@@ -0,0 +1,272 @@
+package com.shyam;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.*;
+
+/**
+ * Client of a partitioned stats service made of several {@link StatsShardServer} processes.
+ *
+ * Players are hash-sharded by name, so updates and lookups go to a single shard. Global top-K
+ * queries ask every shard for its own top K in parallel and merge the sorted lists; global ranks
+ * add up, over all shards, the number of players ranked above the player. Prefix searches merge
+ * every shard's first matches the same way, in name order.
+ */
+class ShardedStats implements Closeable {
+    private final List<ShardConnection> shards = new ArrayList<>();
+    private final ExecutorService scatter;
+
+    /**
+     * A persistent connection to one shard. Requests on one connection are serialized.
+     */
+    private static class ShardConnection implements Closeable {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final BufferedWriter out;
+
+        ShardConnection(InetSocketAddress address) throws IOException {
+            socket = new Socket();
+            socket.setTcpNoDelay(true);
+            socket.connect(address);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        }
+
+        synchronized String call(String request) throws IOException {
+            out.write(request);
+            out.newLine();
+            out.flush();
+            return readLine();
+        }
+
+        synchronized List<String> callList(String request) throws IOException {
+            int count = Integer.parseInt(call(request));
+            List<String> lines = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                lines.add(readLine());
+            }
+            return lines;
+        }
+
+        synchronized String callBulk(List<GameStats.PlayerStats> updates) throws IOException {
+            out.write("BULK " + updates.size());
+            out.newLine();
+            for (GameStats.PlayerStats stats : updates) {
+                out.write(stats.toString());
+                out.newLine();
+            }
+            out.flush();
+            return readLine();
+        }
+
+        private String readLine() throws IOException {
+            String line = in.readLine();
+            if (line == null) {
+                throw new EOFException("Shard closed the connection");
+            }
+            if (line.startsWith("ERROR")) {
+                throw new IOException("Shard error: " + line);
+            }
+            return line;
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    /**
+     * Connects to the given shards. The order of the addresses defines the sharding and must not change.
+     */
+    public ShardedStats(List<InetSocketAddress> addresses) throws IOException {
+        try {
+            for (InetSocketAddress address : addresses) {
+                shards.add(new ShardConnection(address));
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+        scatter = Executors.newFixedThreadPool(shards.size(), r -> {
+            Thread t = new Thread(r, "sharded-stats-scatter");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private ShardConnection shardFor(String name) {
+        return shards.get(Math.floorMod(name.hashCode(), shards.size()));
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    /**
+     * Updates a player's stats on the shard that owns the player.
+     */
+    public void updatePlayerStats(String name, int totalGames, int wins, int losses, int draws) throws IOException {
+        shardFor(name).call("UPDATE " + new GameStats.PlayerStats(name, totalGames, wins, losses, draws));
+    }
+
+    /**
+     * Sends many updates, one bulk request per shard, to all shards in parallel.
+     */
+    public void updateAllPlayerStats(List<GameStats.PlayerStats> updates) throws IOException {
+        List<List<GameStats.PlayerStats>> perShard = new ArrayList<>();
+        for (int i = 0; i < shards.size(); i++) {
+            perShard.add(new ArrayList<>());
+        }
+        for (GameStats.PlayerStats stats : updates) {
+            perShard.get(Math.floorMod(stats.getName().hashCode(), shards.size())).add(stats);
+        }
+        List<Callable<String>> calls = new ArrayList<>();
+        for (int i = 0; i < shards.size(); i++) {
+            final ShardConnection shard = shards.get(i);
+            final List<GameStats.PlayerStats> batch = perShard.get(i);
+            calls.add(() -> shard.callBulk(batch));
+        }
+        gather(calls);
+    }
+
+    /**
+     * Gets the global top K by merging every shard's top K.
+     */
+    public List<GameStats.PlayerStats> getTopPlayers(final int k) throws IOException {
+        List<Callable<List<String>>> calls = new ArrayList<>();
+        for (final ShardConnection shard : shards) {
+            calls.add(() -> shard.callList("TOP " + k));
+        }
+        return merge(gather(calls), GameStats.RANKING, k);
+    }
+
+    /**
+     * Gets one page, starting at page 0, of the players on all shards whose name starts with the given
+     * prefix ignoring case, in name order. Every shard returns its matches up to the end of the page,
+     * so later pages cost more.
+     */
+    public List<GameStats.PlayerStats> searchPlayers(String prefix, int page, int pageSize) throws IOException {
+        long skip = (long) Math.max(0, page) * pageSize;
+        final int limit = (int) Math.min(Integer.MAX_VALUE, skip + pageSize);
+        final String request = "SEARCH " + limit + "|" + prefix;
+        List<Callable<List<String>>> calls = new ArrayList<>();
+        for (final ShardConnection shard : shards) {
+            calls.add(() -> shard.callList(request));
+        }
+        List<GameStats.PlayerStats> found = merge(gather(calls), PlayerNameIndex.NAME_ORDER, limit);
+        return new ArrayList<>(found.subList((int) Math.min(skip, found.size()), found.size()));
+    }
+
+    /**
+     * Counts the players on all shards whose name starts with the given prefix, ignoring case.
+     */
+    public int countPlayersWithPrefix(String prefix) throws IOException {
+        final String request = "COUNT " + prefix;
+        List<Callable<String>> calls = new ArrayList<>();
+        for (final ShardConnection shard : shards) {
+            calls.add(() -> shard.call(request));
+        }
+        int count = 0;
+        for (String shardCount : gather(calls)) {
+            count += Integer.parseInt(shardCount);
+        }
+        return count;
+    }
+
+    /**
+     * K-way merge of sorted lists of stats lines, keeping the first k.
+     */
+    private static List<GameStats.PlayerStats> merge(List<List<String>> results,
+                                                     final Comparator<GameStats.PlayerStats> order, int k) {
+        List<List<GameStats.PlayerStats>> lists = new ArrayList<>();
+        PriorityQueue<int[]> heads = new PriorityQueue<>((a, b) ->
+            order.compare(lists.get(a[0]).get(a[1]), lists.get(b[0]).get(b[1])));
+        for (List<String> lines : results) {
+            List<GameStats.PlayerStats> list = new ArrayList<>(lines.size());
+            for (String line : lines) {
+                list.add(GameStats.PlayerStats.parse(line));
+            }
+            lists.add(list);
+            if (!list.isEmpty()) {
+                heads.add(new int[] {lists.size() - 1, 0});
+            }
+        }
+        List<GameStats.PlayerStats> merged = new ArrayList<>();
+        while (merged.size() < k && !heads.isEmpty()) {
+            int[] head = heads.poll();
+            merged.add(lists.get(head[0]).get(head[1]));
+            if (head[1] + 1 < lists.get(head[0]).size()) {
+                heads.add(new int[] {head[0], head[1] + 1});
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Gets a player's global rank, starting at 1, or 0 if the player is unknown. Like
+     * {@link GameStats#getRank}, this is one plus the number of players ranked above, with ties broken by name.
+     */
+    public int getRank(String name) throws IOException {
+        String line = shardFor(name).call("GET " + name);
+        if (line.equals("NONE")) {
+            return 0;
+        }
+        final String request = "ABOVE " + line;
+        List<Callable<String>> calls = new ArrayList<>();
+        for (final ShardConnection shard : shards) {
+            calls.add(() -> shard.call(request));
+        }
+        int above = 0;
+        for (String count : gather(calls)) {
+            above += Integer.parseInt(count);
+        }
+        return above + 1;
+    }
+
+    /**
+     * Gets a player's stats from the shard that owns the player, or null if unknown.
+     */
+    public GameStats.PlayerStats getPlayerStats(String name) throws IOException {
+        String line = shardFor(name).call("GET " + name);
+        return line.equals("NONE") ? null : GameStats.PlayerStats.parse(line);
+    }
+
+    /**
+     * Runs one call per shard in parallel and returns the results in shard order.
+     */
+    private <T> List<T> gather(List<Callable<T>> calls) throws IOException {
+        try {
+            List<T> results = new ArrayList<>(calls.size());
+            for (Future<T> future : scatter.invokeAll(calls)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while querying shards");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Shard request failed", cause);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (scatter != null) {
+            scatter.shutdownNow();
+        }
+        for (ShardConnection shard : shards) {
+            shard.close();
+        }
+    }
+}
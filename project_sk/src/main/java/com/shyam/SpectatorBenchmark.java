@@ -0,0 +1,180 @@
+package com.shyam;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures {@link SpectatorFeed} fan-out throughput as the number of subscribers grows.
+ *
+ * Every tenth subscriber is slow: it only requests one more event per millisecond, like a spectator
+ * on a congested connection, so its buffer overflows and it sees conflated updates. Events are
+ * published as fast as possible, far above the rate of a real game, so fast subscribers may drop
+ * too once the delivery threads fall behind. The benchmark reports how long publishing takes (the
+ * cost paid by the game's handler thread), how many events per second reach the fast subscribers,
+ * and the share of events each group dropped.
+ *
+ * Usage: {@code SpectatorBenchmark [events] [subscriberCounts...]}, e.g. {@code SpectatorBenchmark 20000 10 100 1000 10000}
+ */
+class SpectatorBenchmark {
+    private static final int DEFAULT_EVENTS = 20000;
+    private static final int[] DEFAULT_SUBSCRIBER_COUNTS = {10, 100, 1000, 10000};
+    private static final int BUFFER_SIZE = 64;
+    private static final int SLOW_EVERY = 10;
+
+    /**
+     * Subscriber that takes everything as fast as it is delivered.
+     */
+    private static class FastSubscriber implements SpectatorFeed.Subscriber {
+        private final CountDownLatch done;
+        private final AtomicLong received;
+
+        FastSubscriber(CountDownLatch done, AtomicLong received) {
+            this.done = done;
+            this.received = received;
+        }
+
+        @Override
+        public void onSubscribe(SpectatorFeed.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(SpectatorEvent event) {
+            received.incrementAndGet();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            System.err.println("Spectator failed: " + throwable);
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            done.countDown();
+        }
+    }
+
+    /**
+     * Subscriber whose demand is topped up by a timer instead of from onNext.
+     */
+    private static class SlowSubscriber implements SpectatorFeed.Subscriber {
+        private final CountDownLatch done;
+        private volatile SpectatorFeed.Subscription subscription;
+
+        SlowSubscriber(CountDownLatch done) {
+            this.done = done;
+        }
+
+        @Override
+        public void onSubscribe(SpectatorFeed.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(SpectatorEvent event) {
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            System.err.println("Spectator failed: " + throwable);
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            done.countDown();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int events = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_EVENTS;
+        int[] subscriberCounts = DEFAULT_SUBSCRIBER_COUNTS;
+        if (args.length > 1) {
+            subscriberCounts = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++) {
+                subscriberCounts[i - 1] = Integer.parseInt(args[i]);
+            }
+        }
+
+        System.out.printf("%d events, buffer %d, every %dth subscriber slow, %d delivery threads%n",
+            events, BUFFER_SIZE, SLOW_EVERY, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-12s %-16s %-16s %-16s %-14s %-14s%n",
+            "subscribers", "publish ns/ev", "publish max us", "deliveries/s", "fast dropped", "slow dropped");
+        // Warm up once before measuring
+        run(100, events, false);
+        for (int subscriberCount : subscriberCounts) {
+            run(subscriberCount, events, true);
+        }
+    }
+
+    private static void run(int subscriberCount, int events, boolean print) throws InterruptedException {
+        SpectatorFeed feed = new SpectatorFeed();
+        CountDownLatch done = new CountDownLatch(subscriberCount);
+        AtomicLong received = new AtomicLong();
+        List<SlowSubscriber> slow = new ArrayList<>();
+        List<SpectatorFeed.Subscription> slowSubscriptions = new ArrayList<>();
+        int fast = 0;
+        for (int i = 0; i < subscriberCount; i++) {
+            if (i % SLOW_EVERY == SLOW_EVERY - 1) {
+                SlowSubscriber subscriber = new SlowSubscriber(done);
+                slowSubscriptions.add(feed.subscribe(subscriber, BUFFER_SIZE, SpectatorFeed.OverflowPolicy.DROP_OLDEST));
+                slow.add(subscriber);
+            } else {
+                feed.subscribe(new FastSubscriber(done, received), BUFFER_SIZE, SpectatorFeed.OverflowPolicy.DROP_OLDEST);
+                fast++;
+            }
+        }
+
+        ScheduledExecutorService trickle = Executors.newSingleThreadScheduledExecutor();
+        trickle.scheduleAtFixedRate(() -> {
+            for (SlowSubscriber subscriber : slow) {
+                subscriber.subscription.request(1);
+            }
+        }, 1, 1, TimeUnit.MILLISECONDS);
+
+        SpectatorEvent[] payload = new SpectatorEvent[events];
+        Choice[] choices = Choice.values();
+        for (int i = 0; i < events; i++) {
+            payload[i] = new SpectatorEvent(i, "player" + (i % 50), choices[i % 3], choices[(i / 3) % 3], "Draw!",
+                i % 4, (i / 4) % 4, i % 3 == 2, i);
+        }
+
+        long maxPublish = 0;
+        long start = System.nanoTime();
+        for (SpectatorEvent event : payload) {
+            long before = System.nanoTime();
+            feed.publish(event);
+            maxPublish = Math.max(maxPublish, System.nanoTime() - before);
+        }
+        long published = System.nanoTime() - start;
+        feed.close();
+        trickle.shutdownNow();
+        // Slow subscribers complete once their remaining buffer is drained; give them unbounded demand
+        for (SlowSubscriber subscriber : slow) {
+            subscriber.subscription.request(Long.MAX_VALUE);
+        }
+        if (!done.await(60, TimeUnit.SECONDS)) {
+            System.err.println("Timed out waiting for subscribers to complete");
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long dropped = 0;
+        for (SpectatorFeed.Subscription subscription : slowSubscriptions) {
+            dropped += subscription.getDropped();
+        }
+        if (print) {
+            long fastEvents = (long) fast * events;
+            System.out.printf("%-12d %-16.1f %-16.1f %-16.0f %-14s %-14s%n", subscriberCount,
+                (double) published / events, maxPublish / 1000.0, received.get() * 1e9 / elapsed,
+                String.format("%.1f%%", 100.0 * (fastEvents - received.get()) / fastEvents),
+                slow.isEmpty() ? "-" : String.format("%.1f%%", 100.0 * dropped / ((long) slow.size() * events)));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.shyam;
+
+/**
+ * An immutable round or match update broadcast to spectators by the {@link SpectatorFeed}.
+ */
+class SpectatorEvent {
+    private final long sequence;
+    private final String playerName;
+    private final Choice playerChoice;
+    private final Choice computerChoice;
+    private final String result;
+    private final int playerScore;
+    private final int computerScore;
+    private final boolean gameOver;
+    private final long timestamp;
+
+    public SpectatorEvent(long sequence, String playerName, Choice playerChoice, Choice computerChoice, String result,
+                          int playerScore, int computerScore, boolean gameOver, long timestamp) {
+        this.sequence = sequence;
+        this.playerName = playerName;
+        this.playerChoice = playerChoice;
+        this.computerChoice = computerChoice;
+        this.result = result;
+        this.playerScore = playerScore;
+        this.computerScore = computerScore;
+        this.gameOver = gameOver;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * Copies a round event, which is only valid while its handler runs.
+     */
+    static SpectatorEvent of(RoundEvent event, long sequence) {
+        return new SpectatorEvent(sequence, event.getPlayerName(), event.getPlayerChoice(), event.getComputerChoice(),
+            event.getResult(), event.getPlayerScore(), event.getComputerScore(), event.isGameOver(),
+            event.getTimestamp());
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    public Choice getPlayerChoice() {
+        return playerChoice;
+    }
+
+    public Choice getComputerChoice() {
+        return computerChoice;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    public int getPlayerScore() {
+        return playerScore;
+    }
+
+    public int getComputerScore() {
+        return computerScore;
+    }
+
+    /**
+     * Whether this round ended the match.
+     */
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("#%d %s: %s vs %s, %s (%d-%d)%s", sequence, playerName, playerChoice, computerChoice,
+            result, playerScore, computerScore, gameOver ? " game over" : "");
+    }
+}
@@ -0,0 +1,301 @@
+package com.shyam;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Broadcasts round and match events to spectators with per-subscriber backpressure.
+ *
+ * The subscriber contract mirrors {@code java.util.concurrent.Flow}, which is not available on
+ * Java 8: events are only delivered up to the demand signalled through {@link Subscription#request}.
+ * Each subscriber has its own bounded buffer; when a slow subscriber's buffer is full, updates are
+ * dropped or conflated according to its {@link OverflowPolicy} instead of blocking the publisher.
+ * Deliveries run on a shared pool, at most one batch per subscriber at a time.
+ */
+class SpectatorFeed implements RoundEventBus.Handler {
+    private static final int MAX_BATCH = 64;
+
+    private final List<FeedSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ExecutorService deliveryPool;
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile boolean closed;
+
+    /**
+     * What to do with a new event when a subscriber's buffer is full.
+     */
+    enum OverflowPolicy {
+        /** Drop the oldest buffered event, keeping the most recent ones. */
+        DROP_OLDEST,
+        /** Drop the new event, keeping the buffered ones. */
+        DROP_NEWEST,
+        /** Keep only the most recent event; each one carries the full score, so nothing is lost but history. */
+        LATEST_ONLY
+    }
+
+    /**
+     * Receives spectator events. Calls for one subscriber never overlap.
+     */
+    interface Subscriber {
+        void onSubscribe(Subscription subscription);
+
+        void onNext(SpectatorEvent event);
+
+        void onError(Throwable throwable);
+
+        void onComplete();
+    }
+
+    /**
+     * Link between the feed and one subscriber.
+     */
+    interface Subscription {
+        /**
+         * Allows up to n more events to be delivered. A non-positive n ends the subscription with an
+         * {@link IllegalArgumentException}, delivered to {@link Subscriber#onError} on the delivery thread.
+         */
+        void request(long n);
+
+        void cancel();
+
+        /**
+         * Gets the number of events dropped or conflated because the subscriber fell behind.
+         */
+        long getDropped();
+    }
+
+    /**
+     * Creates a feed delivering on a daemon pool sized to the machine.
+     */
+    public SpectatorFeed() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public SpectatorFeed(int deliveryThreads) {
+        deliveryPool = Executors.newFixedThreadPool(deliveryThreads, r -> {
+            Thread t = new Thread(r, "spectator-delivery");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Subscribes a spectator. {@link Subscriber#onSubscribe} is called before this method returns.
+     * @param bufferSize Maximum number of undelivered events kept for this subscriber.
+     */
+    public Subscription subscribe(Subscriber subscriber, int bufferSize, OverflowPolicy policy) {
+        FeedSubscription subscription = new FeedSubscription(subscriber,
+            policy == OverflowPolicy.LATEST_ONLY ? 1 : Math.max(1, bufferSize), policy);
+        subscriber.onSubscribe(subscription);
+        if (closed) {
+            subscription.complete();
+            return subscription;
+        }
+        subscriptions.add(subscription);
+        // close() may have cleared the list just before the add; complete() only takes effect once
+        if (closed && subscriptions.remove(subscription)) {
+            subscription.complete();
+        }
+        return subscription;
+    }
+
+    @Override
+    public void onEvent(RoundEvent event, long sequence, boolean endOfBatch) {
+        long spectatorSequence = this.sequence.incrementAndGet();
+        if (!subscriptions.isEmpty()) {
+            publish(SpectatorEvent.of(event, spectatorSequence));
+        }
+    }
+
+    /**
+     * Offers an event to every subscriber. Never blocks on a subscriber.
+     */
+    public void publish(SpectatorEvent event) {
+        for (FeedSubscription subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    }
+
+    /**
+     * Completes every subscription once its buffered events have been delivered, then stops the delivery
+     * threads. Subscribers added afterwards are completed at once.
+     */
+    public void close() {
+        closed = true;
+        for (FeedSubscription subscription : subscriptions) {
+            if (subscriptions.remove(subscription)) {
+                subscription.complete();
+            }
+        }
+        // Already queued drains still run, so buffered events and completions are delivered first
+        deliveryPool.shutdown();
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    private class FeedSubscription implements Subscription {
+        private final Subscriber subscriber;
+        private final OverflowPolicy policy;
+        private final SpectatorEvent[] buffer;
+        private int head;
+        private int count;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger pendingDrains = new AtomicInteger();
+        private final AtomicLong dropped = new AtomicLong();
+        private final Runnable drainTask = this::drain;
+        private volatile boolean cancelled;
+        private volatile boolean completed;
+        // Set by an invalid request and delivered by drain(), so onError never overlaps onNext
+        private volatile Throwable error;
+
+        FeedSubscription(Subscriber subscriber, int bufferSize, OverflowPolicy policy) {
+            this.subscriber = subscriber;
+            this.policy = policy;
+            this.buffer = new SpectatorEvent[bufferSize];
+        }
+
+        void offer(SpectatorEvent event) {
+            if (cancelled || error != null) {
+                return;
+            }
+            synchronized (this) {
+                if (count == buffer.length) {
+                    dropped.incrementAndGet();
+                    if (policy == OverflowPolicy.DROP_NEWEST) {
+                        return;
+                    }
+                    // DROP_OLDEST and LATEST_ONLY both make room by discarding the oldest event
+                    buffer[head] = null;
+                    head = (head + 1) % buffer.length;
+                    count--;
+                }
+                buffer[(head + count) % buffer.length] = event;
+                count++;
+            }
+            scheduleDrain();
+        }
+
+        private synchronized SpectatorEvent poll() {
+            if (count == 0) {
+                return null;
+            }
+            SpectatorEvent event = buffer[head];
+            buffer[head] = null;
+            head = (head + 1) % buffer.length;
+            count--;
+            return event;
+        }
+
+        private synchronized boolean isEmpty() {
+            return count == 0;
+        }
+
+        void complete() {
+            completed = true;
+            scheduleDrain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                if (error == null) {
+                    error = new IllegalArgumentException("Requested " + n + " events, must be positive");
+                }
+                subscriptions.remove(this);
+                scheduleDrain();
+                return;
+            }
+            // Add to the outstanding demand, saturating at Long.MAX_VALUE (unbounded)
+            demand.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            scheduleDrain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+        }
+
+        @Override
+        public long getDropped() {
+            return dropped.get();
+        }
+
+        private void scheduleDrain() {
+            if (pendingDrains.getAndIncrement() == 0 && !submitDrain()) {
+                // The feed is closed; no drain is running, so deliver on this thread
+                drain();
+            }
+        }
+
+        /**
+         * Hands the drain to the delivery pool.
+         * @return False if the pool has been shut down by {@link #close()}.
+         */
+        private boolean submitDrain() {
+            try {
+                deliveryPool.execute(drainTask);
+                return true;
+            } catch (RejectedExecutionException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Delivers buffered events up to the demand, at most one batch before yielding the pool thread.
+         */
+        private void drain() {
+            int missed = 1;
+            while (true) {
+                int emitted = 0;
+                while (!cancelled && error == null && emitted < MAX_BATCH && demand.get() > 0) {
+                    SpectatorEvent event = poll();
+                    if (event == null) {
+                        break;
+                    }
+                    try {
+                        subscriber.onNext(event);
+                    } catch (RuntimeException e) {
+                        cancel();
+                        subscriber.onError(e);
+                        return;
+                    }
+                    if (demand.get() != Long.MAX_VALUE) {
+                        demand.decrementAndGet();
+                    }
+                    emitted++;
+                }
+                if (cancelled) {
+                    return;
+                }
+                if (error != null) {
+                    cancel();
+                    subscriber.onError(error);
+                    return;
+                }
+                if (completed && isEmpty()) {
+                    cancelled = true;
+                    subscriber.onComplete();
+                    return;
+                }
+                if (emitted == MAX_BATCH) {
+                    // More may be waiting; let other subscribers use this thread first, or carry on once closed
+                    if (submitDrain()) {
+                        return;
+                    }
+                    continue;
+                }
+                missed = pendingDrains.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.shyam;
+
+/**
+ * Round event handler that updates the leaderboard and the player's daily and weekly results when a game ends.
+ */
+class StatsHandler implements RoundEventBus.Handler {
+    private final GameStats gameStats;
+
+    public StatsHandler(GameStats gameStats) {
+        this.gameStats = gameStats;
+    }
+
+    @Override
+    public void onEvent(RoundEvent event, long sequence, boolean endOfBatch) {
+        if (event.isGameOver()) {
+            gameStats.updatePlayerStats(event.getPlayerName(), event.getTotalGames(), event.getTotalWins(),
+                event.getTotalLosses(), event.getTotalDraws());
+
+            String gameResult;
+            if (event.getPlayerScore() > event.getComputerScore()) {
+                gameResult = "Win!";
+            } else if (event.getComputerScore() > event.getPlayerScore()) {
+                gameResult = "Lose!";
+            } else {
+                gameResult = "Draw!";
+            }
+            gameStats.recordGame(event.getPlayerName(), gameResult, event.getTimestamp());
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.shyam;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One shard of the partitioned stats service: a process that owns its own {@link GameStats} store and
+ * answers requests from {@link ShardedStats} over a line-based protocol on loopback.
+ *
+ * Requests and responses are single lines; player stats use the leaderboard file format.
+ * <pre>
+ * UPDATE name|games|wins|losses|draws|timestamp   -> OK
+ * BULK n, then n stats lines                      -> OK
+ * TOP k                                           -> count, then that many stats lines
+ * GET name                                        -> stats line, or NONE
+ * ABOVE name|games|wins|losses|draws|timestamp    -> number of players ranked above those stats
+ * SIZE                                            -> number of players
+ * SEARCH limit|prefix                             -> count, then up to limit stats lines of the players
+ *                                                    whose name starts with prefix ignoring case, in name order
+ * COUNT prefix                                    -> number of players whose name starts with prefix
+ * </pre>
+ * Errors are answered with {@code ERROR message}. A single UPDATE only moves that player's entry and
+ * the leaderboard file is saved in the background shortly after; BULK re-sorts and saves at once.
+ *
+ * Usage: {@code StatsShardServer port dataDirectory}. Prints {@code READY port} once listening.
+ */
+class StatsShardServer {
+    private final GameStats gameStats;
+    private final ServerSocket serverSocket;
+
+    public StatsShardServer(int port, File dataDirectory) throws IOException {
+        if (!dataDirectory.isDirectory() && !dataDirectory.mkdirs()) {
+            throw new IOException("Cannot create shard directory " + dataDirectory);
+        }
+        gameStats = new GameStats(new File(dataDirectory, "leaderboard.txt").getPath(),
+            new File(dataDirectory, "leaderboard_windows.txt").getPath(), Integer.MAX_VALUE);
+        serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Accepts connections until the socket is closed, serving each on its own thread.
+     */
+    public void serve() {
+        while (!serverSocket.isClosed()) {
+            try {
+                final Socket socket = serverSocket.accept();
+                Thread thread = new Thread(() -> handle(socket), "stats-shard-connection");
+                thread.setDaemon(true);
+                thread.start();
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.err.println("Error accepting shard connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops accepting connections and writes any update still waiting for its background save.
+     */
+    public void close() throws IOException {
+        serverSocket.close();
+        gameStats.saveLeaderboard();
+    }
+
+    private void handle(Socket socket) {
+        try (Socket s = socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8))) {
+            s.setTcpNoDelay(true);
+            String line;
+            while ((line = in.readLine()) != null) {
+                try {
+                    respond(line, in, out);
+                } catch (RuntimeException e) {
+                    out.write("ERROR " + e.getMessage());
+                    out.newLine();
+                }
+                out.flush();
+            }
+        } catch (IOException e) {
+            // Client went away
+        }
+    }
+
+    private void respond(String line, BufferedReader in, BufferedWriter out) throws IOException {
+        int space = line.indexOf(' ');
+        String command = space < 0 ? line : line.substring(0, space);
+        String argument = space < 0 ? "" : line.substring(space + 1);
+        switch (command) {
+            case "UPDATE": {
+                GameStats.PlayerStats stats = parseStats(argument);
+                gameStats.updatePlayerStats(stats);
+                writeLine(out, "OK");
+                break;
+            }
+            case "BULK": {
+                int count = Integer.parseInt(argument);
+                List<GameStats.PlayerStats> updates = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    updates.add(parseStats(in.readLine()));
+                }
+                gameStats.updateAllPlayerStats(updates);
+                writeLine(out, "OK");
+                break;
+            }
+            case "TOP": {
+                List<GameStats.PlayerStats> top = gameStats.getTopPlayers(Integer.parseInt(argument));
+                writeLine(out, Integer.toString(top.size()));
+                for (GameStats.PlayerStats stats : top) {
+                    writeLine(out, stats.toString());
+                }
+                break;
+            }
+            case "GET": {
+                GameStats.PlayerStats stats = gameStats.getPlayerStats(argument);
+                writeLine(out, stats == null ? "NONE" : stats.toString());
+                break;
+            }
+            case "ABOVE":
+                writeLine(out, Integer.toString(gameStats.countAbove(parseStats(argument))));
+                break;
+            case "SIZE":
+                writeLine(out, Integer.toString(gameStats.size()));
+                break;
+            case "SEARCH": {
+                int bar = argument.indexOf('|');
+                if (bar < 0) {
+                    throw new IllegalArgumentException("Malformed search: " + argument);
+                }
+                List<GameStats.PlayerStats> found = gameStats.getPlayersWithPrefix(argument.substring(bar + 1),
+                    Integer.parseInt(argument.substring(0, bar)));
+                writeLine(out, Integer.toString(found.size()));
+                for (GameStats.PlayerStats stats : found) {
+                    writeLine(out, stats.toString());
+                }
+                break;
+            }
+            case "COUNT":
+                writeLine(out, Integer.toString(gameStats.countPlayersWithPrefix(argument)));
+                break;
+            default:
+                writeLine(out, "ERROR Unknown command " + command);
+                break;
+        }
+    }
+
+    private static GameStats.PlayerStats parseStats(String line) {
+        GameStats.PlayerStats stats = line == null ? null : GameStats.PlayerStats.parse(line);
+        if (stats == null) {
+            throw new IllegalArgumentException("Malformed stats: " + line);
+        }
+        return stats;
+    }
+
+    private static void writeLine(BufferedWriter out, String line) throws IOException {
+        out.write(line);
+        out.newLine();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: StatsShardServer port dataDirectory");
+            System.exit(2);
+        }
+        StatsShardServer server = new StatsShardServer(Integer.parseInt(args[0]), new File(args[1]));
+        // Write any update still waiting for its background save
+        Runtime.getRuntime().addShutdownHook(new Thread(server.gameStats::saveLeaderboard, "stats-shard-save"));
+        System.out.println("READY " + server.getPort());
+        System.out.flush();
+        server.serve();
+    }
+}
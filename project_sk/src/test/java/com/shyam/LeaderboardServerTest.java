@@ -0,0 +1,168 @@
+package com.shyam;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class LeaderboardServerTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private GameStats gameStats;
+    private LeaderboardServer server;
+
+    /**
+     * Status, body and ETag of one response.
+     */
+    private static class Response {
+        int status;
+        String body;
+        String etag;
+    }
+
+    @Before
+    public void startServer() throws IOException {
+        gameStats = new GameStats(folder.newFile("leaderboard.txt").getPath(),
+            folder.newFile("leaderboard_windows.txt").getPath(), 10);
+        gameStats.updateAllPlayerStats(Arrays.asList(
+            new GameStats.PlayerStats("amy", 10, 9, 1, 0),
+            new GameStats.PlayerStats("bob", 10, 7, 3, 0),
+            new GameStats.PlayerStats("sam", 10, 5, 5, 0),
+            new GameStats.PlayerStats("Sally", 10, 3, 7, 0),
+            new GameStats.PlayerStats("tom", 10, 1, 9, 0)));
+        server = new LeaderboardServer(gameStats, 0);
+        server.start();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    public void topPlayersAreRankedAndKIsClamped() throws IOException {
+        Response top = get("/api/leaderboard/top?k=2", null);
+        assertEquals(200, top.status);
+        assertTrue(top.body, top.body.startsWith("{\"window\":\"all_time\",\"players\":[{\"rank\":1,\"name\":\"amy\""));
+        assertTrue(top.body, top.body.contains("{\"rank\":2,\"name\":\"bob\""));
+        assertEquals(1, count(get("/api/leaderboard/top?k=0", null).body, "\"rank\""));
+        assertEquals(5, count(get("/api/leaderboard/top?k=oops", null).body, "\"rank\""));
+        assertEquals(400, get("/api/leaderboard/top?window=month", null).status);
+    }
+
+    @Test
+    public void pagesCarryTheirRanks() throws IOException {
+        Response page = get("/api/leaderboard/players?page=1&size=2", null);
+        assertEquals(200, page.status);
+        assertTrue(page.body, page.body.startsWith("{\"page\":1,\"size\":2,\"total\":5,\"players\":[{\"rank\":3,\"name\":\"sam\""));
+        assertTrue(page.body, page.body.contains("{\"rank\":4,\"name\":\"Sally\""));
+    }
+
+    @Test
+    public void pagesPastTheEndAreEmpty() throws IOException {
+        Response page = get("/api/leaderboard/players?page=100&size=20", null);
+        assertEquals(200, page.status);
+        assertTrue(page.body, page.body.endsWith("\"players\":[]}"));
+        Response search = get("/api/leaderboard/search?prefix=s&page=5&size=2", null);
+        assertEquals(200, search.status);
+        assertTrue(search.body, search.body.endsWith("\"total\":2,\"players\":[]}"));
+    }
+
+    @Test
+    public void pagesWhoseRanksOverflowAreRejected() throws IOException {
+        assertEquals(400, get("/api/leaderboard/players?page=2147483647&size=2", null).status);
+        assertEquals(400, get("/api/leaderboard/search?prefix=s&page=1073741824&size=2", null).status);
+    }
+
+    @Test
+    public void searchIgnoresCaseAndReportsRanks() throws IOException {
+        Response search = get("/api/leaderboard/search?prefix=S", null);
+        assertEquals(200, search.status);
+        assertTrue(search.body, search.body.contains("\"total\":2"));
+        assertTrue(search.body, search.body.contains("{\"rank\":4,\"name\":\"Sally\""));
+        assertTrue(search.body, search.body.contains("{\"rank\":3,\"name\":\"sam\""));
+        assertTrue(search.body, search.body.indexOf("Sally") < search.body.indexOf("sam"));
+    }
+
+    @Test
+    public void unknownPlayersPathsAndMethodsAreRejected() throws IOException {
+        assertEquals(404, get("/api/leaderboard/player?name=zoe", null).status);
+        assertEquals(404, get("/api/leaderboard/nothing", null).status);
+        HttpURLConnection connection = open("/api/leaderboard/top");
+        connection.setRequestMethod("DELETE");
+        assertEquals(405, connection.getResponseCode());
+    }
+
+    @Test
+    public void matchingEntityTagsGetNotModified() throws IOException {
+        Response first = get("/api/leaderboard/top", null);
+        assertNotNull(first.etag);
+        assertEquals(304, get("/api/leaderboard/top", first.etag).status);
+        assertEquals(304, get("/api/leaderboard/top", "*").status);
+        assertEquals(304, get("/api/leaderboard/top", "\"other\", " + first.etag).status);
+        assertEquals(304, get("/api/leaderboard/top", "W/" + first.etag).status);
+        assertEquals(200, get("/api/leaderboard/top", "\"other\"").status);
+        // Errors are never answered with 304
+        assertEquals(404, get("/api/leaderboard/player?name=zoe", "*").status);
+    }
+
+    @Test
+    public void entityTagChangesWithTheLeaderboard() throws IOException {
+        Response before = get("/api/leaderboard/top", null);
+        gameStats.updatePlayerStats("tom", 20, 15, 5, 0);
+        Response after = get("/api/leaderboard/top", before.etag);
+        assertEquals(200, after.status);
+        assertNotEquals(before.etag, after.etag);
+        assertTrue(after.body, after.body.contains("{\"rank\":1,\"name\":\"tom\""));
+    }
+
+    private HttpURLConnection open(String path) throws IOException {
+        return (HttpURLConnection) new URL("http://localhost:" + server.getPort() + path).openConnection();
+    }
+
+    private Response get(String path, String ifNoneMatch) throws IOException {
+        HttpURLConnection connection = open(path);
+        if (ifNoneMatch != null) {
+            connection.setRequestProperty("If-None-Match", ifNoneMatch);
+        }
+        Response response = new Response();
+        response.status = connection.getResponseCode();
+        response.etag = connection.getHeaderField("ETag");
+        InputStream in = response.status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        if (in != null) {
+            try (InputStream stream = in) {
+                byte[] buffer = new byte[4096];
+                int read;
+                while ((read = stream.read(buffer)) > 0) {
+                    body.write(buffer, 0, read);
+                }
+            }
+        }
+        response.body = new String(body.toByteArray(), StandardCharsets.UTF_8);
+        return response;
+    }
+
+    private static int count(String text, String part) {
+        int count = 0;
+        for (int i = text.indexOf(part); i >= 0; i = text.indexOf(part, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,76 @@
+package com.shyam;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class PlayerNameIndexTest {
+    private static final String[] PREFIXES = {"", "a", "ab", "B", "zz"};
+
+    @Test
+    public void lookupsMatchAScanThroughAdditionsRemovalsAndMerges() {
+        Random random = new Random(1);
+        PlayerNameIndex index = new PlayerNameIndex();
+        Map<String, GameStats.PlayerStats> players = new HashMap<>();
+        for (int step = 0; step < 10000; step++) {
+            int operation = random.nextInt(10);
+            String name = (random.nextBoolean() ? "A" : "a") + (char) ('a' + random.nextInt(3)) + random.nextInt(400);
+            if (operation < 5) {
+                GameStats.PlayerStats stats = new GameStats.PlayerStats(name, 1, 1, 0, 0);
+                index.add(stats);
+                players.put(name, stats);
+            } else if (operation < 7) {
+                GameStats.PlayerStats stats = players.remove(name);
+                if (stats != null) {
+                    index.remove(stats);
+                }
+            } else {
+                String prefix = PREFIXES[random.nextInt(PREFIXES.length)];
+                int page = random.nextInt(10);
+                int pageSize = 1 + random.nextInt(30);
+                List<GameStats.PlayerStats> matches = matching(players, prefix);
+                int from = Math.min(matches.size(), page * pageSize);
+                assertEquals(matches.subList(from, Math.min(matches.size(), from + pageSize)),
+                    index.findByPrefix(prefix, page, pageSize));
+                assertEquals(matches.size(), index.countByPrefix(prefix));
+
+                List<GameStats.PlayerStats> sameName = new ArrayList<>();
+                for (GameStats.PlayerStats stats : matches) {
+                    if (stats.getName().equalsIgnoreCase(name)) {
+                        sameName.add(stats);
+                    }
+                }
+                if (prefix.isEmpty()) {
+                    assertEquals(sameName, index.findIgnoreCase(name.toUpperCase(Locale.ROOT)));
+                }
+            }
+            assertEquals(players.size(), index.size());
+        }
+    }
+
+    @Test
+    public void pagesPastTheEndAreEmpty() {
+        PlayerNameIndex index = new PlayerNameIndex();
+        index.add(new GameStats.PlayerStats("sam", 1, 1, 0, 0));
+        assertEquals(0, index.findByPrefix("s", 1, 1).size());
+        assertEquals(0, index.findByPrefix("s", Integer.MAX_VALUE, Integer.MAX_VALUE).size());
+    }
+
+    private static List<GameStats.PlayerStats> matching(Map<String, GameStats.PlayerStats> players, String prefix) {
+        List<GameStats.PlayerStats> matches = new ArrayList<>();
+        for (GameStats.PlayerStats stats : players.values()) {
+            if (stats.getName().toLowerCase(Locale.ROOT).startsWith(prefix.toLowerCase(Locale.ROOT))) {
+                matches.add(stats);
+            }
+        }
+        matches.sort(PlayerNameIndex.NAME_ORDER);
+        return matches;
+    }
+}
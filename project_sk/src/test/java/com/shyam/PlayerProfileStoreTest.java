@@ -0,0 +1,91 @@
+package com.shyam;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class PlayerProfileStoreTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void savedProfilesAreReadBackByANewStore() throws Exception {
+        String path = new File(folder.getRoot(), "profiles.dat").getPath();
+        PlayerProfile alice = profile(Choice.ROCK, Choice.ROCK, Choice.PAPER, Choice.ROCK, Choice.SCISSORS);
+        PlayerProfile bob = profile(Choice.PAPER, Choice.PAPER, Choice.PAPER);
+        PlayerProfileStore store = new PlayerProfileStore(path, 1);
+        store.save("alice", alice);
+        store.save("bob", bob);
+        store.close();
+
+        PlayerProfileStore reopened = new PlayerProfileStore(path, 1);
+        assertArrayEquals(bytes(alice), bytes(reopened.load("alice").get()));
+        assertArrayEquals(bytes(bob), bytes(reopened.load("bob").get()));
+        assertEquals(0, reopened.load("carol").get().getTotalMoves());
+        reopened.close();
+    }
+
+    @Test
+    public void savingOnePlayerKeepsTheOthers() throws Exception {
+        String path = new File(folder.getRoot(), "profiles.dat").getPath();
+        PlayerProfile alice = profile(Choice.SCISSORS, Choice.ROCK);
+        PlayerProfileStore first = new PlayerProfileStore(path, 1);
+        first.save("alice", alice);
+        first.close();
+
+        PlayerProfile bob = profile(Choice.PAPER);
+        PlayerProfileStore second = new PlayerProfileStore(path, 1);
+        second.save("bob", bob);
+        second.close();
+
+        PlayerProfileStore third = new PlayerProfileStore(path, 1);
+        assertArrayEquals(bytes(alice), bytes(third.load("alice").get()));
+        assertArrayEquals(bytes(bob), bytes(third.load("bob").get()));
+        third.close();
+    }
+
+    @Test
+    public void unrecognisedFileIsMovedAsideBeforeSaving() throws Exception {
+        File file = new File(folder.getRoot(), "profiles.dat");
+        byte[] foreign = "not a profile file".getBytes(StandardCharsets.UTF_8);
+        Files.write(file.toPath(), foreign);
+
+        PlayerProfile alice = profile(Choice.ROCK);
+        PlayerProfileStore store = new PlayerProfileStore(file.getPath(), 1);
+        store.save("alice", alice);
+        store.close();
+
+        File[] aside = folder.getRoot().listFiles((dir, name) -> name.startsWith("profiles.dat.bad-"));
+        assertNotNull(aside);
+        assertEquals(1, aside.length);
+        assertArrayEquals(foreign, Files.readAllBytes(aside[0].toPath()));
+        PlayerProfileStore reopened = new PlayerProfileStore(file.getPath(), 1);
+        assertArrayEquals(bytes(alice), bytes(reopened.load("alice").get()));
+        reopened.close();
+    }
+
+    private static PlayerProfile profile(Choice... moves) {
+        PlayerProfile profile = new PlayerProfile();
+        for (Choice move : moves) {
+            profile.observe(move);
+        }
+        return profile;
+    }
+
+    private static byte[] bytes(PlayerProfile profile) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        profile.write(new DataOutputStream(buffer));
+        return buffer.toByteArray();
+    }
+}
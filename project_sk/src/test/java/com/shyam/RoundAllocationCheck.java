@@ -0,0 +1,161 @@
+package com.shyam;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the bytes allocated per round and per game by the engine and the round event handlers,
+ * and fails if either exceeds its budget.
+ *
+ * Each difficulty plays rounds through {@link RoundEngine} and the {@link RoundEventBus} with the
+ * history (with a {@link RoundLog}), stats (with a {@link GameStats}), metrics and spectator handlers.
+ * The spectator feed has no subscribers, since each subscribed round is delivered as its own event by
+ * design. The display and sound handlers need a window and a MIDI device and are not registered.
+ *
+ * Rounds are first measured in a game that never ends. Then short games are played, and what they
+ * allocate beyond their rounds is charged to the games: saving the profile and the leaderboard and
+ * recording the daily and weekly results. Allocations are counted on the playing thread and on every
+ * engine, handler, profile and leaderboard thread. All threads are stopped after each difficulty.
+ * Runs during {@code mvn test}; exits with status 1 when over budget.
+ */
+class RoundAllocationCheck {
+    // Well under one object per round; only the round log's block writes are amortized in here
+    private static final double BUDGET_BYTES_PER_ROUND = 4.0;
+    // About 23 KB today, mostly the buffers and rows of the leaderboard and profile file rewrites
+    private static final double BUDGET_BYTES_PER_GAME = 64 * 1024;
+    private static final int WARMUP_ROUNDS = 20000;
+    private static final int MEASURED_ROUNDS = 50000;
+    private static final int ROUNDS_PER_GAME = 5;
+    private static final int WARMUP_GAME_ROUNDS = 2000;
+    private static final int MEASURED_GAME_ROUNDS = 5000;
+    private static final String[] THREAD_PREFIXES = {
+        "round-event-", "round-engine-", "player-profiles", "leaderboard-save", "round-log-"
+    };
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            System.out.println("Thread allocation measurement is not supported by this JVM, skipping check.");
+            return;
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        boolean withinBudget = true;
+        for (Difficulty difficulty : Difficulty.values()) {
+            Measurement rounds = measure(threads, difficulty, Integer.MAX_VALUE, WARMUP_ROUNDS, MEASURED_ROUNDS);
+            double bytesPerRound = (double) rounds.bytes / rounds.rounds;
+            Measurement games = measure(threads, difficulty, ROUNDS_PER_GAME, WARMUP_GAME_ROUNDS,
+                MEASURED_GAME_ROUNDS);
+            double bytesPerGame = (games.bytes - bytesPerRound * games.rounds) / games.games;
+
+            boolean roundsOk = bytesPerRound <= BUDGET_BYTES_PER_ROUND;
+            boolean gamesOk = bytesPerGame <= BUDGET_BYTES_PER_GAME;
+            withinBudget &= roundsOk && gamesOk;
+            System.out.printf("%-8s %8.2f bytes/round (budget %.0f) %s, %8.0f bytes/game (budget %.0f) %s%n",
+                difficulty, bytesPerRound, BUDGET_BYTES_PER_ROUND, roundsOk ? "OK" : "OVER BUDGET",
+                bytesPerGame, BUDGET_BYTES_PER_GAME, gamesOk ? "OK" : "OVER BUDGET");
+        }
+        if (!withinBudget) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Bytes allocated while playing a number of rounds, and the number of games they ended.
+     */
+    private static class Measurement {
+        long bytes;
+        long rounds;
+        long games;
+    }
+
+    private static Measurement measure(com.sun.management.ThreadMXBean threads, Difficulty difficulty, int maxRounds,
+                                       int warmupRounds, int measuredRounds) throws IOException, InterruptedException {
+        File data = tempFile("rounds", ".dat");
+        File index = tempFile("rounds", ".idx");
+        File profiles = tempFile("profiles", ".dat");
+        File leaderboard = tempFile("leaderboard", ".txt");
+        File windows = tempFile("leaderboard_windows", ".txt");
+
+        RoundLog roundLog = new RoundLog(data.getPath(), index.getPath());
+        GameStats gameStats = new GameStats(leaderboard.getPath(), windows.getPath(), 10);
+        AdaptiveOpponent adaptiveOpponent = new AdaptiveOpponent();
+        PlayerProfileStore profileStore = new PlayerProfileStore(profiles.getPath(), 1);
+        SpectatorFeed spectatorFeed = new SpectatorFeed(1);
+        RoundEventBus bus = new RoundEventBus();
+        RoundMetrics metrics = new RoundMetrics();
+        bus.addHandler("history", new RoundHistory(roundLog));
+        bus.addHandler("stats", new StatsHandler(gameStats));
+        bus.addHandler("metrics", metrics);
+        bus.addHandler("spectators", spectatorFeed);
+        RoundEngine engine = new RoundEngine("check", maxRounds, difficulty, adaptiveOpponent, profileStore, bus);
+
+        Measurement measurement = new Measurement();
+        try {
+            playRounds(engine, bus, warmupRounds);
+            long[] ids = roundThreadIds();
+            long gamesBefore = metrics.getGames();
+            long before = sum(threads.getThreadAllocatedBytes(ids));
+            playRounds(engine, bus, measuredRounds);
+            measurement.bytes = sum(threads.getThreadAllocatedBytes(ids)) - before;
+            measurement.rounds = measuredRounds;
+            measurement.games = metrics.getGames() - gamesBefore;
+        } finally {
+            engine.close();
+            bus.close();
+            spectatorFeed.close();
+            adaptiveOpponent.close();
+            profileStore.close();
+            roundLog.close();
+        }
+        return measurement;
+    }
+
+    private static File tempFile(String prefix, String suffix) throws IOException {
+        File file = File.createTempFile(prefix, suffix);
+        file.deleteOnExit();
+        return file;
+    }
+
+    private static void playRounds(RoundEngine engine, RoundEventBus bus, int rounds) throws InterruptedException {
+        Choice[] choices = Choice.values();
+        for (int i = 0; i < rounds; i++) {
+            engine.playRound(choices[i % choices.length], false);
+        }
+        while (!bus.isDrained()) {
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * Gets the ids of the current thread and all live engine, handler, profile and leaderboard threads.
+     */
+    private static long[] roundThreadIds() {
+        List<Long> ids = new ArrayList<>();
+        ids.add(Thread.currentThread().getId());
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            for (String prefix : THREAD_PREFIXES) {
+                if (thread.isAlive() && thread.getName().startsWith(prefix)) {
+                    ids.add(thread.getId());
+                }
+            }
+        }
+        long[] result = new long[ids.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ids.get(i);
+        }
+        return result;
+    }
+
+    private static long sum(long[] values) {
+        long total = 0;
+        for (long value : values) {
+            total += Math.max(0, value);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,99 @@
+package com.shyam;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RoundLogTest {
+    private static final Choice[] CHOICES = Choice.values();
+    private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+    private static final String[] RESULTS = {"Win!", "Lose!", "Draw!"};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void roundsSurviveReopeningAcrossFullAndPartialBlocks() throws Exception {
+        File data = new File(folder.getRoot(), "rounds.dat");
+        File index = new File(folder.getRoot(), "rounds.idx");
+        List<String> expected = new ArrayList<>();
+        RoundLog log = new RoundLog(data.getPath(), index.getPath());
+        Random random = new Random(42);
+        long timestamp = 1700000000000L;
+        for (int i = 0; i < 5000; i++) {
+            // Timestamps usually grow but may step back, e.g. after a clock change
+            timestamp += random.nextInt(5000) - 500;
+            Choice player = CHOICES[random.nextInt(CHOICES.length)];
+            Choice computer = CHOICES[random.nextInt(CHOICES.length)];
+            String result = RESULTS[random.nextInt(RESULTS.length)];
+            Difficulty difficulty = DIFFICULTIES[random.nextInt(DIFFICULTIES.length)];
+            boolean timedOut = random.nextInt(10) == 0;
+            log.append("alice", timestamp, player, computer, result, difficulty, timedOut);
+            expected.add(describe(timestamp, player, computer, result, difficulty, timedOut));
+        }
+        log.append("bob", timestamp, Choice.ROCK, Choice.PAPER, "Lose!", Difficulty.HARD, false);
+        log.close();
+
+        RoundLog reopened = new RoundLog(data.getPath(), index.getPath());
+        assertEquals(expected, scanAll(reopened, "alice"));
+        assertEquals(1, scanAll(reopened, "bob").size());
+        assertEquals(0, scanAll(reopened, "carol").size());
+        reopened.close();
+    }
+
+    @Test
+    public void scanSkipsRoundsOutsideTheTimeRange() {
+        File data = new File(folder.getRoot(), "rounds.dat");
+        File index = new File(folder.getRoot(), "rounds.idx");
+        RoundLog log = new RoundLog(data.getPath(), index.getPath());
+        for (int i = 0; i < 100; i++) {
+            log.append("alice", 1000L * i, Choice.ROCK, Choice.SCISSORS, "Win!", Difficulty.EASY, false);
+        }
+        log.close();
+
+        List<String> rounds = new ArrayList<>();
+        int visited = new RoundLog(data.getPath(), index.getPath()).scan("alice", 10000, 19999,
+            (timestamp, player, computer, result, difficulty, timedOut) -> rounds.add(Long.toString(timestamp)));
+        assertEquals(10, visited);
+        assertEquals("10000", rounds.get(0));
+        assertEquals("19000", rounds.get(9));
+    }
+
+    @Test
+    public void partialBlockIsWrittenWithoutClose() throws Exception {
+        File data = new File(folder.getRoot(), "rounds.dat");
+        File index = new File(folder.getRoot(), "rounds.idx");
+        RoundLog log = new RoundLog(data.getPath(), index.getPath(), 50);
+        for (int i = 0; i < 10; i++) {
+            log.append("alice", 1000L * i, Choice.PAPER, Choice.ROCK, "Win!", Difficulty.MEDIUM, false);
+        }
+
+        // As if the game were killed: nothing calls close()
+        long deadline = System.currentTimeMillis() + 5000;
+        while (index.length() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue("block was not written", index.length() > 0);
+        assertEquals(10, scanAll(new RoundLog(data.getPath(), index.getPath()), "alice").size());
+    }
+
+    private static List<String> scanAll(RoundLog log, String name) {
+        List<String> rounds = new ArrayList<>();
+        log.scan(name, Long.MIN_VALUE, Long.MAX_VALUE, (timestamp, player, computer, result, difficulty, timedOut) ->
+            rounds.add(describe(timestamp, player, computer, result, difficulty, timedOut)));
+        return rounds;
+    }
+
+    private static String describe(long timestamp, Choice player, Choice computer, String result,
+                                   Difficulty difficulty, boolean timedOut) {
+        return timestamp + " " + player + " " + computer + " " + result + " " + difficulty + " " + timedOut;
+    }
+}
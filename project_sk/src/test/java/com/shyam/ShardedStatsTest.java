@@ -0,0 +1,144 @@
+package com.shyam;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class ShardedStatsTest {
+    private static final int SHARDS = 3;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final List<StatsShardServer> servers = new ArrayList<>();
+    private ShardedStats sharded;
+    private GameStats local;
+
+    @Before
+    public void startShards() throws IOException {
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        for (int i = 0; i < SHARDS; i++) {
+            StatsShardServer server = new StatsShardServer(0, folder.newFolder("shard" + i));
+            Thread thread = new Thread(server::serve, "stats-shard-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            servers.add(server);
+            addresses.add(new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort()));
+        }
+        sharded = new ShardedStats(addresses);
+        local = new GameStats(folder.newFile("leaderboard.txt").getPath(),
+            folder.newFile("leaderboard_windows.txt").getPath(), Integer.MAX_VALUE);
+    }
+
+    @After
+    public void stopShards() throws IOException {
+        sharded.close();
+        for (StatsShardServer server : servers) {
+            server.close();
+        }
+    }
+
+    @Test
+    public void tiesAreBrokenByNameAcrossShards() throws IOException {
+        List<GameStats.PlayerStats> players = new ArrayList<>();
+        for (String name : new String[] {"dan", "amy", "cat", "bob"}) {
+            players.add(new GameStats.PlayerStats(name, 10, 5, 5, 0));
+        }
+        players.add(new GameStats.PlayerStats("zed", 10, 9, 1, 0));
+        sharded.updateAllPlayerStats(players);
+
+        assertEquals(1, sharded.getRank("zed"));
+        assertEquals(2, sharded.getRank("amy"));
+        assertEquals(3, sharded.getRank("bob"));
+        assertEquals(4, sharded.getRank("cat"));
+        assertEquals(5, sharded.getRank("dan"));
+        assertEquals(0, sharded.getRank("eve"));
+        assertEquals("zed amy bob", names(sharded.getTopPlayers(3)));
+    }
+
+    @Test
+    public void mergedRanksAndTopKMatchASingleStore() throws IOException {
+        Random random = new Random(7);
+        List<GameStats.PlayerStats> players = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            // Few distinct records, so many players tie on wins and win rate
+            int games = 4 + random.nextInt(3);
+            int wins = random.nextInt(games + 1);
+            players.add(new GameStats.PlayerStats("player" + i, games, wins, games - wins, 0));
+        }
+        sharded.updateAllPlayerStats(players);
+        local.updateAllPlayerStats(copies(players));
+
+        for (GameStats.PlayerStats player : players) {
+            assertEquals(player.getName(), local.getRank(player.getName()), sharded.getRank(player.getName()));
+        }
+        assertEquals(names(local.getTopPlayers(25)), names(sharded.getTopPlayers(25)));
+    }
+
+    @Test
+    public void singleUpdatesMoveThePlayer() throws IOException {
+        sharded.updateAllPlayerStats(copies(Arrays.asList(
+            new GameStats.PlayerStats("amy", 4, 3, 1, 0),
+            new GameStats.PlayerStats("bob", 4, 2, 2, 0),
+            new GameStats.PlayerStats("cat", 4, 1, 3, 0))));
+        assertEquals(3, sharded.getRank("cat"));
+
+        sharded.updatePlayerStats("cat", 8, 5, 3, 0);
+        assertEquals(1, sharded.getRank("cat"));
+        assertEquals(2, sharded.getRank("amy"));
+        assertEquals(5, sharded.getPlayerStats("cat").getWins());
+    }
+
+    @Test
+    public void prefixSearchPagesAcrossShardsInNameOrder() throws IOException {
+        List<GameStats.PlayerStats> players = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            String name = (i % 3 == 0 ? "Sam" : i % 3 == 1 ? "sam" : "Tom") + i;
+            players.add(new GameStats.PlayerStats(name, 3, i % 4 == 0 ? 2 : 1, 1, 0));
+        }
+        sharded.updateAllPlayerStats(players);
+        local.updateAllPlayerStats(copies(players));
+
+        assertEquals(local.countPlayersWithPrefix("SA"), sharded.countPlayersWithPrefix("SA"));
+        assertEquals(80, sharded.countPlayersWithPrefix("sa"));
+        for (int page = 0; page < 6; page++) {
+            List<GameStats.PlayerStats> expected = new ArrayList<>();
+            for (GameStats.RankedPlayer player : local.searchPlayers("sa", page, 15)) {
+                expected.add(player.getStats());
+            }
+            assertEquals(names(expected), names(sharded.searchPlayers("sa", page, 15)));
+        }
+        assertEquals(0, sharded.searchPlayers("sa", Integer.MAX_VALUE, 2).size());
+    }
+
+    private static List<GameStats.PlayerStats> copies(List<GameStats.PlayerStats> players) {
+        List<GameStats.PlayerStats> copies = new ArrayList<>();
+        for (GameStats.PlayerStats player : players) {
+            copies.add(player.copy());
+        }
+        return copies;
+    }
+
+    private static String names(List<GameStats.PlayerStats> players) {
+        StringBuilder names = new StringBuilder();
+        for (GameStats.PlayerStats player : players) {
+            if (names.length() > 0) {
+                names.append(' ');
+            }
+            names.append(player.getName());
+        }
+        return names.toString();
+    }
+}